@@ -0,0 +1,141 @@
+package org.svenson.tokenize;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link TextScanner} using the incubating Vector API. Every step compares a whole vector of bytes or chars of the
+ * preferred shape of the platform, the remainder of a range is scanned by the scalar implementation.
+ * <p>
+ * Requires the <code>jdk.incubator.vector</code> module and is only ever loaded reflectively by
+ * {@link TextScanner}.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+final class VectorTextScanner
+    extends TextScanner
+{
+    private final static VectorSpecies<Byte> BYTES = ByteVector.SPECIES_PREFERRED;
+
+    private final static VectorSpecies<Short> CHARS = ShortVector.SPECIES_PREFERRED;
+
+    /**
+     * Minimum number of bytes per vector worth vectorizing for.
+     */
+    private final static int MIN_VECTOR_BYTES = 16;
+
+    VectorTextScanner()
+    {
+        if (BYTES.vectorByteSize() < MIN_VECTOR_BYTES)
+        {
+            throw new UnsupportedOperationException("No vectors of at least " + MIN_VECTOR_BYTES + " bytes");
+        }
+    }
+
+    @Override
+    int findStringSpecial(byte[] bytes, int from, int to, int quote)
+    {
+        int i = from;
+        for (int last = to - BYTES.length(); i <= last; i += BYTES.length())
+        {
+            ByteVector v = ByteVector.fromArray(BYTES, bytes, i);
+            // bytes >= 0x80 are negative, so only check the ASCII control characters
+            VectorMask<Byte> found = v.eq((byte) quote)
+                .or(v.eq((byte) '\\'))
+                .or(v.lt((byte) 32).andNot(v.lt((byte) 0)));
+            if (found.anyTrue())
+            {
+                return i + found.firstTrue();
+            }
+        }
+        return super.findStringSpecial(bytes, i, to, quote);
+    }
+
+    @Override
+    int findStringSpecial(char[] chars, int from, int to, int quote)
+    {
+        int i = from;
+        for (int last = to - CHARS.length(); i <= last; i += CHARS.length())
+        {
+            ShortVector v = ShortVector.fromCharArray(CHARS, chars, i);
+            // chars >= 0x8000 are negative, so only check the control characters
+            VectorMask<Short> found = v.eq((short) quote)
+                .or(v.eq((short) '\\'))
+                .or(v.lt((short) 32).andNot(v.lt((short) 0)));
+            if (found.anyTrue())
+            {
+                return i + found.firstTrue();
+            }
+        }
+        return super.findStringSpecial(chars, i, to, quote);
+    }
+
+    @Override
+    boolean isASCII(byte[] bytes, int from, int to)
+    {
+        int i = from;
+        int last = to - BYTES.length();
+        if (i <= last)
+        {
+            ByteVector high = ByteVector.zero(BYTES);
+            for (; i <= last; i += BYTES.length())
+            {
+                high = high.or(ByteVector.fromArray(BYTES, bytes, i));
+            }
+            if (high.lt((byte) 0).anyTrue())
+            {
+                return false;
+            }
+        }
+        return super.isASCII(bytes, i, to);
+    }
+
+    @Override
+    int skipWhiteSpace(byte[] bytes, int from, int to)
+    {
+        int i = from;
+        for (int last = to - BYTES.length(); i <= last; i += BYTES.length())
+        {
+            ByteVector v = ByteVector.fromArray(BYTES, bytes, i);
+            VectorMask<Byte> whiteSpace = v.eq((byte) ' ')
+                .or(v.eq((byte) '\n'))
+                .or(v.eq((byte) '\r'))
+                .or(v.eq((byte) '\t'))
+                .or(v.eq((byte) '\b'));
+            if (!whiteSpace.allTrue())
+            {
+                return i + whiteSpace.not().firstTrue();
+            }
+        }
+        return super.skipWhiteSpace(bytes, i, to);
+    }
+
+    @Override
+    int skipWhiteSpace(char[] chars, int from, int to)
+    {
+        int i = from;
+        for (int last = to - CHARS.length(); i <= last; i += CHARS.length())
+        {
+            ShortVector v = ShortVector.fromCharArray(CHARS, chars, i);
+            VectorMask<Short> whiteSpace = v.eq((short) ' ')
+                .or(v.eq((short) '\n'))
+                .or(v.eq((short) '\r'))
+                .or(v.eq((short) '\t'))
+                .or(v.eq((short) '\b'));
+            if (!whiteSpace.allTrue())
+            {
+                return i + whiteSpace.not().firstTrue();
+            }
+        }
+        return super.skipWhiteSpace(chars, i, to);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "vector text scanner (" + BYTES.vectorBitSize() + " bit)";
+    }
+}
@@ -0,0 +1,57 @@
+package org.svenson;
+
+import java.math.BigDecimal;
+
+/**
+ * {@link JSONHandler} ignoring all events. Subclasses override the methods for the events they are interested in.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public abstract class AbstractJSONHandler
+    implements JSONHandler
+{
+    public void startObject()
+    {
+    }
+
+    public void key(String key)
+    {
+    }
+
+    public void endObject()
+    {
+    }
+
+    public void startArray()
+    {
+    }
+
+    public void endArray()
+    {
+    }
+
+    public void stringValue(String value)
+    {
+    }
+
+    public void longValue(long value)
+    {
+    }
+
+    public void doubleValue(double value)
+    {
+    }
+
+    public void numberValue(BigDecimal value)
+    {
+    }
+
+    public void booleanValue(boolean value)
+    {
+    }
+
+    public void nullValue()
+    {
+    }
+}
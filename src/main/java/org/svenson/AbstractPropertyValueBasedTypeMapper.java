@@ -76,6 +76,31 @@ public abstract class AbstractPropertyValueBasedTypeMapper extends AbstractTypeM
 
         if (pathMatcher.matches(parsePathInfo, typeHint))
         {
+            if (tokenizer.isMarkSupported())
+            {
+                // skim for the discriminator and rewind the character window
+                tokenizer.mark();
+                try
+                {
+                    TokenType type = tokenizer.nextType();
+                    if (type == TokenType.END)
+                    {
+                        throw new IllegalStateException("Unexpected end");
+                    }
+                    if (type == TokenType.BRACE_OPEN)
+                    {
+                        tokenizer.nextType();
+                    }
+
+                    Object value = getPropertyValueFromCurrentObject(tokenizer, discriminatorField);
+                    return getTypeHintFromTypeProperty(value);
+                }
+                finally
+                {
+                    tokenizer.reset();
+                }
+            }
+
             tokenizer.startRecording();
             Token first = tokenizer.next();
 
@@ -55,5 +55,45 @@ public abstract class AbstractTypeMapper implements TypeMapper
         while((token = tokenizer.next()).type() != TokenType.END);
 
         return null;
-    }    
+    }
+
+    /**
+     * Returns the value of the given property of the object the tokenizer is in. The current token of the tokenizer must be
+     * the first key of that object or the closing brace. All other values are skimmed without creating tokens for them.
+     * The tokenizer should be marked before and reset afterwards.
+     *
+     * @param tokenizer     tokenizer
+     * @param propertyName  name of the property
+     * @return value of the property or <code>null</code> if the object has no such property.
+     *
+     * @see JSONTokenizer#mark()
+     */
+    protected Object getPropertyValueFromCurrentObject(JSONTokenizer tokenizer, String propertyName)
+    {
+        TokenType type = tokenizer.currentType();
+        while (type != TokenType.BRACE_CLOSE)
+        {
+            if (type != TokenType.STRING)
+            {
+                tokenizer.currentToken().expect(TokenType.STRING);
+            }
+            boolean found = tokenizer.stringValue().equals(propertyName);
+            tokenizer.expectNextType(TokenType.COLON);
+
+            if (found)
+            {
+                tokenizer.nextType();
+                return tokenizer.value();
+            }
+
+            tokenizer.skipValue();
+
+            if (tokenizer.expectNextType(TokenType.COMMA, TokenType.BRACE_CLOSE) == TokenType.BRACE_CLOSE)
+            {
+                break;
+            }
+            type = tokenizer.nextType();
+        }
+        return null;
+    }
 }
@@ -0,0 +1,146 @@
+package org.svenson;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.TokenType;
+
+/**
+ * Iterates over the elements of a top-level JSON array. Created by
+ * {@link JSONParser#iterate(Class, org.svenson.tokenize.JSONCharacterSource)}.
+ * <p>
+ * Every element is parsed on demand by {@link #next()}, so only the current element is held in memory. Instances are
+ * not thread-safe.
+ *
+ * @param <T>   type of the elements
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class JSONArrayIterator<T>
+    implements Iterator<T>, Closeable
+{
+    private final JSONParser parser;
+
+    private final Class<T> elementType;
+
+    private final JSONTokenizer tokenizer;
+
+    private boolean started;
+
+    private boolean first = true;
+
+    /**
+     * Type of the first token of the next element or <code>null</code> if the next element has not been read yet.
+     */
+    private TokenType pending;
+
+    private boolean closed;
+
+    JSONArrayIterator(JSONParser parser, Class<T> elementType, JSONTokenizer tokenizer)
+    {
+        this.parser = parser;
+        this.elementType = elementType;
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws JSONParseException if the source does not contain a valid JSON array
+     */
+    public boolean hasNext()
+    {
+        if (pending != null)
+        {
+            return true;
+        }
+        if (closed)
+        {
+            return false;
+        }
+
+        if (!started)
+        {
+            tokenizer.expectNextType(TokenType.BRACKET_OPEN);
+            started = true;
+        }
+
+        TokenType type = tokenizer.nextType();
+        if (type == TokenType.BRACKET_CLOSE)
+        {
+            close();
+            return false;
+        }
+
+        if (!first)
+        {
+            if (type != TokenType.COMMA)
+            {
+                tokenizer.currentToken().expect(TokenType.COMMA);
+            }
+            type = tokenizer.nextType();
+        }
+        first = false;
+        pending = type;
+        return true;
+    }
+
+    /**
+     * Parses and returns the next element.
+     *
+     * @return next element, <code>null</code> for a JSON null element.
+     * @throws NoSuchElementException if there are no more elements
+     * @throws JSONParseException if the next element is invalid
+     */
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        TokenType type = pending;
+        pending = null;
+        return parser.parseArrayElement(elementType, tokenizer, type);
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns a sequential stream over the remaining elements. Closing the stream closes this iterator.
+     *
+     * @return stream of elements
+     */
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+            .onClose(new Runnable()
+            {
+                public void run()
+                {
+                    close();
+                }
+            });
+    }
+
+    /**
+     * Releases the underlying character source. Called automatically after the end of the array was read.
+     */
+    public void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+            tokenizer.destroy();
+        }
+    }
+}
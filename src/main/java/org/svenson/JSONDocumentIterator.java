@@ -0,0 +1,107 @@
+package org.svenson;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.svenson.tokenize.JSONTokenizer;
+
+/**
+ * Iterates over a sequence of JSON documents like newline-delimited JSON or concatenated JSON values. Created by
+ * {@link JSONParser#parseDocuments(Class, org.svenson.tokenize.JSONCharacterSource)}.
+ * <p>
+ * Every document is parsed on demand by {@link #next()}. All documents share one tokenizer and thereby its character
+ * window and key symbol table. Instances are not thread-safe.
+ *
+ * @param <T>   type of the documents
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class JSONDocumentIterator<T>
+    implements Iterator<T>, Closeable
+{
+    private final JSONParser parser;
+
+    private final Class<T> targetType;
+
+    private final JSONTokenizer tokenizer;
+
+    private boolean closed;
+
+    JSONDocumentIterator(JSONParser parser, Class<T> targetType, JSONTokenizer tokenizer)
+    {
+        this.parser = parser;
+        this.targetType = targetType;
+        this.tokenizer = tokenizer;
+    }
+
+    public boolean hasNext()
+    {
+        return !closed && !tokenizer.isAtEnd();
+    }
+
+    /**
+     * Parses and returns the next document.
+     *
+     * @return next document, <code>null</code> for a JSON null document.
+     * @throws NoSuchElementException if there are no more documents
+     * @throws JSONParseException if the next document is invalid
+     */
+    public T next()
+    {
+        if (!hasNext())
+        {
+            throw new NoSuchElementException();
+        }
+        return parser.parseDocument(targetType, tokenizer);
+    }
+
+    public void remove()
+    {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the offset of the next document in the source.
+     *
+     * @return offset in characters or bytes
+     */
+    public long getIndex()
+    {
+        return tokenizer.getIndex();
+    }
+
+    /**
+     * Returns a sequential stream over the remaining documents. Closing the stream closes this iterator.
+     *
+     * @return stream of documents
+     */
+    public Stream<T> stream()
+    {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED), false)
+            .onClose(new Runnable()
+            {
+                public void run()
+                {
+                    close();
+                }
+            });
+    }
+
+    /**
+     * Releases the underlying character source.
+     */
+    public void close()
+    {
+        if (!closed)
+        {
+            closed = true;
+            tokenizer.destroy();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.svenson;
+
+import java.math.BigDecimal;
+
+/**
+ * Receives the events of a JSON document parsed by {@link JSONParser#parse(org.svenson.tokenize.JSONCharacterSource, JSONHandler)}.
+ * <p>
+ * The events are reported in document order straight from the tokenizer, without creating any maps, lists or beans.
+ * Every object member is reported as {@link #key(String)} followed by the events of its value.
+ *
+ * @see AbstractJSONHandler
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public interface JSONHandler
+{
+    /**
+     * Called at the start of a JSON object.
+     */
+    void startObject();
+
+    /**
+     * Called for the key of an object member. The events of the member value follow.
+     *
+     * @param key   member key
+     */
+    void key(String key);
+
+    /**
+     * Called at the end of a JSON object.
+     */
+    void endObject();
+
+    /**
+     * Called at the start of a JSON array.
+     */
+    void startArray();
+
+    /**
+     * Called at the end of a JSON array.
+     */
+    void endArray();
+
+    /**
+     * Called for a string value.
+     *
+     * @param value     string value
+     */
+    void stringValue(String value);
+
+    /**
+     * Called for an integer value in the range of long.
+     *
+     * @param value     integer value
+     */
+    void longValue(long value);
+
+    /**
+     * Called for a decimal value within the double range if the parser uses
+     * {@link org.svenson.tokenize.NumberMode#DOUBLE}.
+     *
+     * @param value     decimal value
+     */
+    void doubleValue(double value);
+
+    /**
+     * Called for all other numbers, that is integers outside of the range of long and decimals if the parser uses
+     * {@link org.svenson.tokenize.NumberMode#BIG_DECIMAL}. Integers outside of the range of long and decimals outside
+     * of the double range are reported as {@link BigDecimal} in {@link org.svenson.tokenize.NumberMode#DOUBLE}, too.
+     *
+     * @param value     number
+     */
+    void numberValue(BigDecimal value);
+
+    /**
+     * Called for <code>true</code> and <code>false</code>.
+     *
+     * @param value     boolean value
+     */
+    void booleanValue(boolean value);
+
+    /**
+     * Called for <code>null</code>.
+     */
+    void nullValue();
+}
@@ -0,0 +1,385 @@
+package org.svenson;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.svenson.tokenize.InputStreamSource;
+import org.svenson.tokenize.JSONByteSource;
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.MappedFileSource;
+import org.svenson.tokenize.TokenType;
+import org.svenson.util.ExceptionWrapper;
+
+/**
+ * Index of the byte offsets of the elements of a JSON array in UTF-8 encoded JSON, usually a large file. The array is
+ * either the top-level array or the array at a parse path of object keys like ".data.items".
+ * <p>
+ * Building the index skims over the JSON once. With the index, {@link JSONParser#parseElement(Class,
+ * java.nio.channels.SeekableByteChannel, JSONOffsetIndex, int)} reads and parses a single element directly from a
+ * seekable source. The index can be persisted next to the file, see {@link #forFile(JSONParser, Path, String)}.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class JSONOffsetIndex
+{
+    /**
+     * Suffix appended to the name of a JSON file to get the name of its index file.
+     */
+    public final static String FILE_SUFFIX = ".idx";
+
+    private final static int MAGIC = 0x5356494E;
+
+    private final static int VERSION = 1;
+
+    private final String path;
+
+    private final long length;
+
+    private final int size;
+
+    /**
+     * Start and end offsets of the elements, two per element.
+     */
+    private final long[] offsets;
+
+    private JSONOffsetIndex(String path, long length, long[] offsets, int size)
+    {
+        this.path = path;
+        this.length = length;
+        this.offsets = offsets;
+        this.size = size;
+    }
+
+    /**
+     * Builds the index for the array at the given parse path of the JSON delivered by the given source. The source is
+     * destroyed afterwards. Only byte sources are accepted because the index of character sources is a char index,
+     * not the byte offset needed to seek to an element.
+     *
+     * @param parser    parser whose tokenizer settings to use
+     * @param source    byte source delivering UTF-8 encoded JSON
+     * @param path      parse path of the array consisting of object keys only, or "" for the top-level array
+     * @return offset index
+     *
+     * @throws JSONParseException if the JSON is invalid or there is no array at the given path
+     */
+    public static JSONOffsetIndex build(JSONParser parser, JSONByteSource source, String path)
+    {
+        if (parser == null)
+        {
+            throw new IllegalArgumentException("parser cannot be null");
+        }
+        if (source == null)
+        {
+            throw new IllegalArgumentException("byte source cannot be null");
+        }
+        if (path == null)
+        {
+            throw new IllegalArgumentException("path cannot be null");
+        }
+
+        JSONTokenizer tokenizer = parser.createTokenizer(source);
+        try
+        {
+            JSONParser.seekArray(tokenizer, path);
+
+            long[] offsets = new long[64];
+            int size = 0;
+            while (true)
+            {
+                // the start includes the white-space before the element
+                long start = tokenizer.getIndex();
+                TokenType type = tokenizer.nextType();
+                if (type == TokenType.BRACKET_CLOSE && size == 0)
+                {
+                    break;
+                }
+
+                if (type == TokenType.BRACE_OPEN || type == TokenType.BRACKET_OPEN)
+                {
+                    tokenizer.skipComplexValue();
+                }
+                else if (!type.isPrimitive())
+                {
+                    throw new JSONParseException("Unexpected token " + tokenizer.currentToken() + " at offset " +
+                        tokenizer.getIndex(), tokenizer.getIndex());
+                }
+
+                if (size * 2 == offsets.length)
+                {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                offsets[size * 2] = start;
+                offsets[size * 2 + 1] = tokenizer.getIndex();
+                size++;
+
+                if (tokenizer.expectNextType(TokenType.COMMA, TokenType.BRACKET_CLOSE) == TokenType.BRACKET_CLOSE)
+                {
+                    break;
+                }
+            }
+
+            // skim the rest to get the length of the JSON
+            while (tokenizer.nextType() != TokenType.END)
+            {
+                if (tokenizer.currentType() == TokenType.BRACE_OPEN || tokenizer.currentType() == TokenType.BRACKET_OPEN)
+                {
+                    tokenizer.skipComplexValue();
+                }
+            }
+            return new JSONOffsetIndex(path, tokenizer.getIndex(), offsets, size);
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Builds the index for the array at the given parse path of the given JSON file.
+     *
+     * @param parser    parser whose tokenizer settings to use
+     * @param file      UTF-8 encoded JSON file
+     * @param path      parse path of the array consisting of object keys only, or "" for the top-level array
+     * @return offset index
+     */
+    public static JSONOffsetIndex build(JSONParser parser, Path file, String path)
+    {
+        return build(parser, new MappedFileSource(file), path);
+    }
+
+    /**
+     * Builds the index for the array at the given parse path of the JSON read from the given input stream. The stream
+     * is not closed.
+     *
+     * @param parser    parser whose tokenizer settings to use
+     * @param json      input stream delivering UTF-8 encoded JSON
+     * @param path      parse path of the array consisting of object keys only, or "" for the top-level array
+     * @return offset index
+     */
+    public static JSONOffsetIndex build(JSONParser parser, InputStream json, String path)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json input stream cannot be null");
+        }
+        return build(parser, new InputStreamSource(json, false), path);
+    }
+
+    /**
+     * Returns the index for the array at the given parse path of the given JSON file. A persisted index next to the
+     * file is used if it is at least as new as the file and matches its size and the path. Otherwise the index is
+     * built and persisted next to the file.
+     *
+     * @param parser    parser whose tokenizer settings to use
+     * @param file      UTF-8 encoded JSON file
+     * @param path      parse path of the array consisting of object keys only, or "" for the top-level array
+     * @return offset index
+     * @see #indexFile(Path)
+     */
+    public static JSONOffsetIndex forFile(JSONParser parser, Path file, String path)
+    {
+        Path indexFile = indexFile(file);
+        try
+        {
+            if (Files.exists(indexFile) &&
+                Files.getLastModifiedTime(indexFile).compareTo(Files.getLastModifiedTime(file)) >= 0)
+            {
+                JSONOffsetIndex index = load(indexFile);
+                if (index.path.equals(path) && index.length == Files.size(file))
+                {
+                    return index;
+                }
+            }
+
+            JSONOffsetIndex index = build(parser, file, path);
+            index.save(indexFile);
+            return index;
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+    }
+
+    /**
+     * Returns the path of the index file persisted next to the given JSON file.
+     *
+     * @param file  JSON file
+     * @return index file path
+     */
+    public static Path indexFile(Path file)
+    {
+        return file.resolveSibling(file.getFileName() + FILE_SUFFIX);
+    }
+
+    /**
+     * Writes this index to the given output stream. The stream is not closed.
+     *
+     * @param out   output stream
+     */
+    public void write(OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeUTF(path);
+        data.writeLong(length);
+        data.writeInt(size);
+        for (int i = 0; i < size * 2; i++)
+        {
+            data.writeLong(offsets[i]);
+        }
+        data.flush();
+    }
+
+    /**
+     * Reads an index written by {@link #write(OutputStream)} from the given input stream. The stream is not closed.
+     *
+     * @param in    input stream
+     * @return offset index
+     */
+    public static JSONOffsetIndex read(InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+        if (data.readInt() != MAGIC)
+        {
+            throw new IOException("Not a JSON offset index");
+        }
+        int version = data.readInt();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported JSON offset index version " + version);
+        }
+        String path = data.readUTF();
+        long length = data.readLong();
+        int size = data.readInt();
+        long[] offsets = new long[size * 2];
+        for (int i = 0; i < offsets.length; i++)
+        {
+            offsets[i] = data.readLong();
+        }
+        return new JSONOffsetIndex(path, length, offsets, size);
+    }
+
+    /**
+     * Writes this index to the given file.
+     *
+     * @param indexFile     index file
+     */
+    public void save(Path indexFile)
+    {
+        try
+        {
+            OutputStream out = Files.newOutputStream(indexFile);
+            try
+            {
+                write(out);
+            }
+            finally
+            {
+                out.close();
+            }
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+    }
+
+    /**
+     * Reads an index from the given file.
+     *
+     * @param indexFile     index file
+     * @return offset index
+     */
+    public static JSONOffsetIndex load(Path indexFile)
+    {
+        try
+        {
+            InputStream in = Files.newInputStream(indexFile);
+            try
+            {
+                return read(in);
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+    }
+
+    /**
+     * Returns the parse path of the indexed array.
+     *
+     * @return parse path, "" for the top-level array
+     */
+    public String getPath()
+    {
+        return path;
+    }
+
+    /**
+     * Returns the length of the indexed JSON in bytes.
+     *
+     * @return length in bytes
+     */
+    public long getLength()
+    {
+        return length;
+    }
+
+    /**
+     * Returns the number of elements of the indexed array.
+     *
+     * @return number of elements
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the offset of the element with the given index. The element may be preceded by white-space.
+     *
+     * @param n     index of the element
+     * @return byte offset of the element
+     */
+    public long getStart(int n)
+    {
+        checkIndex(n);
+        return offsets[n * 2];
+    }
+
+    /**
+     * Returns the offset after the element with the given index.
+     *
+     * @param n     index of the element
+     * @return byte offset after the element
+     */
+    public long getEnd(int n)
+    {
+        checkIndex(n);
+        return offsets[n * 2 + 1];
+    }
+
+    private void checkIndex(int n)
+    {
+        if (n < 0 || n >= size)
+        {
+            throw new IndexOutOfBoundsException("Invalid element index " + n + ", size is " + size);
+        }
+    }
+}
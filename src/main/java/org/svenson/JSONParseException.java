@@ -12,13 +12,37 @@ public class JSONParseException
 {
     private static final long serialVersionUID = 2916869311842277595L;
 
+    private final long offset;
+
     public JSONParseException(String message, Throwable cause)
     {
-        super(message, cause);
+        this(message, -1, cause);
     }
 
     public JSONParseException(String message)
+    {
+        this(message, -1);
+    }
+
+    public JSONParseException(String message, long offset, Throwable cause)
+    {
+        super(message, cause);
+        this.offset = offset;
+    }
+
+    public JSONParseException(String message, long offset)
     {
         super(message);
+        this.offset = offset;
+    }
+
+    /**
+     * Returns the offset in the JSON source at which the error was detected.
+     *
+     * @return offset in characters or bytes or <code>-1</code> if unknown
+     */
+    public long getOffset()
+    {
+        return offset;
     }
 }
@@ -1,17 +1,28 @@
 package org.svenson;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Array;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
 
 import org.apache.commons.beanutils.ConvertUtils;
 import org.slf4j.Logger;
@@ -26,8 +37,14 @@ import org.svenson.info.ObjectSupport;
 import org.svenson.info.ParameterInfo;
 import org.svenson.matcher.EqualsPathMatcher;
 import org.svenson.matcher.PathMatcher;
+import org.svenson.tokenize.ByteArrayJSONSource;
+import org.svenson.tokenize.ByteBufferJSONSource;
+import org.svenson.tokenize.InputStreamSource;
 import org.svenson.tokenize.JSONCharacterSource;
 import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.NumberMode;
+import org.svenson.tokenize.StringJSONSource;
+import org.svenson.tokenize.SymbolTable;
 import org.svenson.tokenize.Token;
 import org.svenson.tokenize.TokenType;
 import org.svenson.util.ExceptionWrapper;
@@ -61,8 +78,26 @@ public class JSONParser
 
     private final static JSONParser defaultJSONParser = new JSONParser();
 
+    private final static IntFunction<ByteBuffer> DIRECT_ALLOCATOR = new IntFunction<ByteBuffer>()
+    {
+        public ByteBuffer apply(int size)
+        {
+            return ByteBuffer.allocateDirect(size);
+        }
+    };
+
+    private final static JSONHandler VALIDATION_HANDLER = new AbstractJSONHandler()
+    {
+    };
+
     private Map<PathMatcher, Class> typeHints = new HashMap<PathMatcher, Class>();
 
+    private Map<PathMatcher, Consumer<Object>> pathConsumers = new LinkedHashMap<PathMatcher, Consumer<Object>>();
+
+    private Set<String> projection;
+
+    private boolean terminateEarly;
+
     private TypeMapper typeMapper;
 
     private Map<Class,Class> interfaceMappings;
@@ -71,6 +106,14 @@ public class JSONParser
     
     private boolean allowSingleQuotes;
 
+    private NumberMode numberMode = NumberMode.BIG_DECIMAL;
+
+    private SymbolTable symbolTable;
+
+    private boolean canonicalizeValues;
+
+    private boolean structuralIndexing;
+
     private Map<Class,TypeConverter> typeConvertersByClass;
 
     private ObjectSupport objectSupport;
@@ -103,6 +146,15 @@ public class JSONParser
         if (src != null)
         {
             typeHints = new HashMap<PathMatcher, Class>(src.typeHints);
+
+            pathConsumers = new LinkedHashMap<PathMatcher, Consumer<Object>>(src.pathConsumers);
+
+            if (src.projection != null)
+            {
+                projection = new HashSet<String>(src.projection);
+            }
+
+            this.terminateEarly = src.terminateEarly;
     
             this.typeMapper = src.typeMapper;
     
@@ -111,6 +163,14 @@ public class JSONParser
             this.objectFactories = new ArrayList<ObjectFactory>(src.objectFactories);
             
             this.allowSingleQuotes = src.allowSingleQuotes;
+
+            this.numberMode = src.numberMode;
+
+            this.symbolTable = src.symbolTable;
+
+            this.canonicalizeValues = src.canonicalizeValues;
+
+            this.structuralIndexing = src.structuralIndexing;
     
             if (src.typeConvertersByClass != null)
             {
@@ -121,6 +181,18 @@ public class JSONParser
         }
     }
 
+    /**
+     * Returns a copy of this parser for a worker thread of a parallel parse. The copy has its own key symbol table and
+     * no path consumers, which would otherwise be called concurrently by several workers and out of input order.
+     */
+    JSONParser workerCopy()
+    {
+        JSONParser workerParser = new JSONParser(this);
+        workerParser.setSymbolTable(new SymbolTable());
+        workerParser.pathConsumers.clear();
+        return workerParser;
+    }
+
     public static JSONParser defaultJSONParser()
     {
         return defaultJSONParser;
@@ -257,6 +329,112 @@ public class JSONParser
         this.typeHints.put(pathMatcher, typeHint);
     }
     
+    /**
+     * Registers a consumer for the elements of the arrays at the given parse path location. The parser hands every
+     * element of such an array to the consumer once it is completely parsed instead of adding it to the array. The
+     * array itself stays empty while all other values are parsed as usual.
+     *
+     *  <p>
+     *  for example: using
+     *  <br><br>
+     *  <code>parser.addPathConsumer(".rows[]", rowConsumer);</code>
+     *  <br><br>
+     *  on a CouchDB view result like
+     *
+     *  <pre>
+     *  {
+     *      "total_rows" : 3,
+     *      "rows" : [ &hellip; ]
+     *  }
+     *  </pre>
+     *
+     *  parses "total_rows" normally but streams the rows to the consumer, so that they don't need to be held in
+     *  memory all at once. Type hints and the type mapper apply to the elements as usual.
+     *
+     * @param parsePath     parse path of the array elements to use with an EqualsPathMatcher
+     * @param consumer      consumer for the elements
+     */
+    public void addPathConsumer(String parsePath, Consumer<?> consumer)
+    {
+        addPathConsumer(new EqualsPathMatcher(parsePath), consumer);
+    }
+
+    /**
+     * Registers a consumer for the elements of the arrays whose element parse path matches the given path matcher.
+     *
+     * @param pathMatcher   path matcher
+     * @param consumer      consumer for the elements
+     * @see #addPathConsumer(String, Consumer)
+     */
+    public void addPathConsumer(PathMatcher pathMatcher, Consumer<?> consumer)
+    {
+        if (pathMatcher == null)
+        {
+            throw new IllegalArgumentException("path matcher can't be null");
+        }
+        if (consumer == null)
+        {
+            throw new IllegalArgumentException("consumer can't be null");
+        }
+        // like bound properties, the elements are handed over without a compile-time check of their type
+        @SuppressWarnings("unchecked")
+        Consumer<Object> elementConsumer = (Consumer<Object>) consumer;
+        this.pathConsumers.put(pathMatcher, elementConsumer);
+    }
+
+    /**
+     * Restricts parsing to the values at the given parse path locations. Object members whose parse path is neither
+     * one of the given paths nor leads to or lies within one of them are skimmed on the character level without
+     * creating any values.
+     *
+     *  <p>
+     *  for example: using
+     *  <br><br>
+     *  <code>parser.setProjection(Arrays.asList(".id", ".items[].name"));</code>
+     *  <br><br>
+     *  only binds the "id" property of the root object and the "name" property of the objects in the "items" array,
+     *  while all other members are skipped.
+     *
+     * @param parsePaths    parse paths to bind or <code>null</code> to bind everything
+     */
+    public void setProjection(Collection<String> parsePaths)
+    {
+        projection = parsePaths == null ? null : new HashSet<String>(parsePaths);
+    }
+
+    /**
+     * Adds a parse path location to the values to bind.
+     *
+     * @param parsePath     parse path to bind
+     * @see #setProjection(Collection)
+     */
+    public void addProjection(String parsePath)
+    {
+        if (parsePath == null)
+        {
+            throw new IllegalArgumentException("parse path can't be null");
+        }
+        if (projection == null)
+        {
+            projection = new HashSet<String>();
+        }
+        projection.add(parsePath);
+    }
+
+    /**
+     * Enables stopping to read the JSON as soon as all projected values were bound. The rest of the JSON is neither
+     * read nor checked, the source is destroyed right away. Only takes effect if no projected parse path lies within
+     * an array, because the end of an array is not known before reading it. Does not apply when parsing
+     * sequences of documents. Default is <code>false</code>.
+     *
+     * @param terminateEarly    <code>true</code> to stop reading once all projected values were bound
+     * @see #setProjection(Collection)
+     */
+    public void setTerminateEarly(boolean terminateEarly)
+    {
+        this.terminateEarly = terminateEarly;
+    }
+
 //    /**
 //     * Sets the type converter repository used by the parser.
 //     * 
@@ -270,10 +448,10 @@ public class JSONParser
 
     public final Object parse( String json)
     {
-        JSONTokenizer tokenizer = new JSONTokenizer(json, allowSingleQuotes);
+        JSONTokenizer tokenizer = createTokenizer(json);
         try
         {
-            return parse(tokenizer);
+            return parse(tokenizer, remainingPaths());
         }
         finally
         {
@@ -283,10 +461,10 @@ public class JSONParser
 
     public final Object parse( JSONCharacterSource source)
     {
-        JSONTokenizer tokenizer = new JSONTokenizer(source , allowSingleQuotes);
+        JSONTokenizer tokenizer = createTokenizer(source);
         try
         {
-            return parse(tokenizer);
+            return parse(tokenizer, remainingPaths());
         }
         finally
         {
@@ -294,13 +472,386 @@ public class JSONParser
         }
     }
     
-    private Object parse(JSONTokenizer tokenizer)
+    /**
+     * Parses the given JSON string into a lazy tree. Objects are returned as {@link LazyJSONObject} maps and arrays as
+     * {@link LazyJSONArray} lists, which decode their values only when they are accessed. Primitive root values are
+     * returned like by {@link #parse(String)}. The string is kept in memory as long as any lazy value of it is.
+     *
+     * @param json      json string
+     * @return lazy map, lazy list or primitive value
+     */
+    public Object parseLazy(String json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json string cannot be null");
+        }
+        LazyJSONSource source = new LazyJSONSource(this, json);
+        return source.decode(0, source.length());
+    }
+
+    /**
+     * Parses the given UTF-8 encoded JSON into a lazy tree. The byte array must not be modified as long as any lazy
+     * value of it is used.
+     *
+     * @param json      UTF-8 encoded JSON
+     * @return lazy map, lazy list or primitive value
+     * @see #parseLazy(String)
+     */
+    public Object parseLazy(byte[] json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json bytes cannot be null");
+        }
+        LazyJSONSource source = new LazyJSONSource(this, json);
+        return source.decode(0, source.length());
+    }
+
+    /**
+     * Parses the given JSON string into a tape in a direct byte buffer.
+     *
+     * @param json      json string
+     * @return tape
+     * @see #parseTape(JSONCharacterSource, IntFunction)
+     */
+    public JSONTape parseTape(String json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json string cannot be null");
+        }
+        return parseTape(new StringJSONSource(json), DIRECT_ALLOCATOR);
+    }
+
+    /**
+     * Parses the JSON document read from the given source into a tape in a direct byte buffer.
+     *
+     * @param source    json character source
+     * @return tape
+     * @see #parseTape(JSONCharacterSource, IntFunction)
+     */
+    public JSONTape parseTape(JSONCharacterSource source)
+    {
+        return parseTape(source, DIRECT_ALLOCATOR);
+    }
+
+    /**
+     * Parses the JSON document read from the given source into a {@link JSONTape}. The tape is written into a byte
+     * buffer from the given allocator, which can e.g. take the buffer from a pool. The allocated buffer must have at
+     * least the requested capacity. Type hints, the type mapper and path consumers do not apply.
+     *
+     * @param source        json character source
+     * @param allocator     allocator called with the needed number of bytes
+     * @return tape
+     */
+    public JSONTape parseTape(JSONCharacterSource source, IntFunction<ByteBuffer> allocator)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null");
+        }
+        if (allocator == null)
+        {
+            throw new IllegalArgumentException("allocator cannot be null");
+        }
+
+        JSONTapeBuilder builder = new JSONTapeBuilder();
+        parse(createTokenizer(source), builder);
+        return builder.build(allocator);
+    }
+
+    /**
+     * Parses the given JSON string and reports its contents to the given handler.
+     *
+     * @param json      json string
+     * @param handler   handler receiving the parse events
+     * @see #parse(JSONCharacterSource, JSONHandler)
+     */
+    public void parse(String json, JSONHandler handler)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json string cannot be null");
+        }
+        parse(createTokenizer(json), handler);
+    }
+
+    /**
+     * Parses the JSON document read from the given source and reports its contents to the given handler. The
+     * document is processed token by token, so no objects are created for it. Type hints, the type mapper and
+     * path consumers do not apply.
+     *
+     * @param source    json character source
+     * @param handler   handler receiving the parse events
+     */
+    public void parse(JSONCharacterSource source, JSONHandler handler)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null");
+        }
+        parse(createTokenizer(source), handler);
+    }
+
+    private void parse(JSONTokenizer tokenizer, JSONHandler handler)
+    {
+        if (handler == null)
+        {
+            throw new IllegalArgumentException("handler cannot be null");
+        }
+
+        try
+        {
+            parseEvents(tokenizer, handler);
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Checks that the given JSON string contains exactly one well-formed JSON value.
+     *
+     * @param json      json string
+     * @throws JSONParseException if the JSON is not well-formed. {@link JSONParseException#getOffset()} returns the
+     *                            character offset of the unexpected token or invalid character.
+     * @see #validate(JSONCharacterSource)
+     */
+    public void validate(String json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json string cannot be null");
+        }
+        validate(createTokenizer(json));
+    }
+
+    /**
+     * Checks that the given UTF-8 encoded JSON contains exactly one well-formed JSON value.
+     *
+     * @param json      UTF-8 encoded JSON
+     * @throws JSONParseException if the JSON is not well-formed. {@link JSONParseException#getOffset()} returns the
+     *                            byte offset of the unexpected token or invalid character.
+     * @see #validate(JSONCharacterSource)
+     */
+    public void validate(byte[] json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json bytes cannot be null");
+        }
+        validate(new ByteArrayJSONSource(json));
+    }
+
+    /**
+     * Checks that the given source contains exactly one well-formed JSON value. Structure, string escapes, numbers
+     * and non-empty object keys are checked like when parsing, but no values are created.
+     *
+     * @param source    json character source
+     * @throws JSONParseException if the JSON is not well-formed. {@link JSONParseException#getOffset()} returns the
+     *                            offset of the unexpected token or invalid character.
+     */
+    public void validate(JSONCharacterSource source)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null");
+        }
+        validate(createTokenizer(source));
+    }
+
+    private void validate(JSONTokenizer tokenizer)
+    {
+        tokenizer.setValidating(true);
+        try
+        {
+            parseEvents(tokenizer, VALIDATION_HANDLER);
+            if (tokenizer.nextType() != TokenType.END)
+            {
+                throw new JSONParseException("Unexpected token " + tokenizer.currentToken() + " after the JSON value",
+                    tokenizer.getTokenIndex());
+            }
+        }
+        catch (JSONParseException e)
+        {
+            // structural errors know the offset of their token, errors inside a token are reported where detected
+            long offset = e.getOffset() >= 0 ? e.getOffset() : tokenizer.getIndex();
+            throw new JSONParseException(e.getMessage() + " at offset " + offset, offset, e);
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Reads one JSON value from the given tokenizer and reports it to the given handler.
+     */
+    private void parseEvents(JSONTokenizer tokenizer, JSONHandler handler)
+    {
+        // container stack, true for objects
+        boolean[] objects = new boolean[16];
+        int depth = 0;
+
+        TokenType type = tokenizer.nextType();
+        while (true)
+        {
+            if (type == TokenType.BRACE_OPEN || type == TokenType.BRACKET_OPEN)
+            {
+                boolean object = type == TokenType.BRACE_OPEN;
+                if (object)
+                {
+                    handler.startObject();
+                }
+                else
+                {
+                    handler.startArray();
+                }
+
+                type = tokenizer.nextType();
+                if (type != (object ? TokenType.BRACE_CLOSE : TokenType.BRACKET_CLOSE))
+                {
+                    if (depth == objects.length)
+                    {
+                        objects = Arrays.copyOf(objects, depth * 2);
+                    }
+                    objects[depth++] = object;
+                    if (object)
+                    {
+                        type = parseKey(tokenizer, handler, type);
+                    }
+                    continue;
+                }
+
+                if (object)
+                {
+                    handler.endObject();
+                }
+                else
+                {
+                    handler.endArray();
+                }
+            }
+            else
+            {
+                parseValue(tokenizer, handler, type);
+            }
+
+            // the value is complete, close all containers ending after it
+            while (true)
+            {
+                if (depth == 0)
+                {
+                    return;
+                }
+
+                boolean object = objects[depth - 1];
+                type = tokenizer.nextType();
+                if (type == TokenType.COMMA)
+                {
+                    type = tokenizer.nextType();
+                    if (object)
+                    {
+                        type = parseKey(tokenizer, handler, type);
+                    }
+                    break;
+                }
+
+                expect(tokenizer, type, object ? TokenType.BRACE_CLOSE : TokenType.BRACKET_CLOSE);
+                depth--;
+                if (object)
+                {
+                    handler.endObject();
+                }
+                else
+                {
+                    handler.endArray();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reports the object key of the given current token and returns the type of the first token of the member value.
+     */
+    private TokenType parseKey(JSONTokenizer tokenizer, JSONHandler handler, TokenType type)
+    {
+        expect(tokenizer, type, TokenType.STRING);
+        // parsing into maps and beans rejects empty keys. Validation creates no strings, an empty key is just quotes.
+        if (handler == VALIDATION_HANDLER && tokenizer.getIndex() - tokenizer.getTokenIndex() == 2)
+        {
+            throw new JSONParseException("Invalid empty property name", tokenizer.getTokenIndex());
+        }
+        handler.key(tokenizer.stringValue());
+        expect(tokenizer, tokenizer.nextType(), TokenType.COLON);
+        return tokenizer.nextType();
+    }
+
+    /**
+     * Throws a parse exception with the offset of the current token if its type is not the expected one.
+     */
+    private static void expect(JSONTokenizer tokenizer, TokenType type, TokenType expected)
+    {
+        if (type != expected)
+        {
+            throw new JSONParseException("Token " + tokenizer.currentToken() + " is not of the expected type " +
+                expected, tokenizer.getTokenIndex());
+        }
+    }
+
+    private void parseValue(JSONTokenizer tokenizer, JSONHandler handler, TokenType type)
+    {
+        switch (type)
+        {
+            case STRING:
+                handler.stringValue(tokenizer.stringValue());
+                break;
+            case INTEGER:
+                if (tokenizer.isLong())
+                {
+                    handler.longValue(tokenizer.longValue());
+                }
+                else
+                {
+                    // BigInteger in NumberMode.DOUBLE
+                    Object value = tokenizer.value();
+                    handler.numberValue(value instanceof BigInteger ? new BigDecimal((BigInteger) value) :
+                        (BigDecimal) value);
+                }
+                break;
+            case DECIMAL:
+                if (tokenizer.isDouble())
+                {
+                    handler.doubleValue(tokenizer.doubleValue());
+                }
+                else
+                {
+                    handler.numberValue((BigDecimal) tokenizer.value());
+                }
+                break;
+            case TRUE:
+                handler.booleanValue(true);
+                break;
+            case FALSE:
+                handler.booleanValue(false);
+                break;
+            case NULL:
+                handler.nullValue();
+                break;
+            default:
+                throw new JSONParseException("Unexpected token " + tokenizer.currentToken(), tokenizer.getTokenIndex());
+        }
+    }
+
+    private Object parse(JSONTokenizer tokenizer, Set<String> remainingPaths)
     {
         Token token = tokenizer.peekToken();
         
         if (token.isType(TokenType.BRACKET_OPEN))
         {
-            return parse( ArrayList.class, tokenizer);
+            return parse( ArrayList.class, tokenizer, remainingPaths);
         }
         else if (token.isType(TokenType.BRACE_OPEN))
         {
@@ -309,91 +860,430 @@ public class JSONParser
 
             if (typeHint != null)
             {
-                return parse(typeHint, tokenizer);
+                return parse(typeHint, tokenizer, remainingPaths);
+            }
+
+            return parse( HashMap.class, tokenizer, remainingPaths);
+        }
+        else if (token.isType(TokenType.NULL) || token.isType(TokenType.FALSE) || token.isType(TokenType.TRUE) || token.isType(TokenType.INTEGER) || token.isType(TokenType.DECIMAL) || token.isType(TokenType.STRING))
+        {
+            // consume the peeked token
+            tokenizer.next();
+            return token.value();
+        }
+        else
+        {
+            throw new JSONParseException("Invalid start token "+token);
+        }
+    }
+
+    
+    /**
+     * Parses a JSON String
+     * @param <T> The type to parse the root object into
+     * @param targetType   Runtime class for &lt;T&gt;
+     * @param json  json string
+     * @return the resulting object
+     */
+    final public <T> T parse(Class<T> targetType, String json)
+    {
+
+        if (targetType == null)
+        {
+            throw new IllegalArgumentException("target type cannot be null");
+        }
+
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json string cannot be null");
+        }
+
+        JSONTokenizer tokenizer = createTokenizer(json);
+        try
+        {
+            return parse(targetType, tokenizer, remainingPaths());
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Parses a JSON String
+     * @param <T>           The type to parse the root object into
+     * @param targetType    Runtime class for &lt;T&gt;
+     * @param source        json character source to parse
+     * @return the resulting object
+     */
+    final public <T> T parse(Class<T> targetType, JSONCharacterSource source)
+    {
+
+        if (targetType == null)
+        {
+            throw new IllegalArgumentException("target type cannot be null");
+        }
+
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null");
+        }
+
+        JSONTokenizer tokenizer = createTokenizer(source);
+        try
+        {
+            return parse(targetType, tokenizer, remainingPaths());
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON from the given byte array. The bytes are tokenized directly without being decoded
+     * into a String first.
+     *
+     * @param <T>           The type to parse the root object into
+     * @param targetType    Runtime class for &lt;T&gt;
+     * @param json          UTF-8 encoded JSON
+     * @return the resulting object
+     */
+    final public <T> T parse(Class<T> targetType, byte[] json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json bytes cannot be null");
+        }
+        return parse(targetType, new ByteArrayJSONSource(json));
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON from the remaining bytes of the given byte buffer. The position of the buffer is
+     * not modified.
+     *
+     * @param <T>           The type to parse the root object into
+     * @param targetType    Runtime class for &lt;T&gt;
+     * @param json          byte buffer containing UTF-8 encoded JSON
+     * @return the resulting object
+     */
+    final public <T> T parse(Class<T> targetType, ByteBuffer json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json buffer cannot be null");
+        }
+
+        if (json.hasArray())
+        {
+            return parse(targetType, new ByteArrayJSONSource(json.array(), json.arrayOffset() + json.position(), json.remaining()));
+        }
+        return parse(targetType, new ByteBufferJSONSource(json));
+    }
+
+    /**
+     * Parses UTF-8 encoded JSON from the given input stream. The stream is not closed.
+     *
+     * @param <T>           The type to parse the root object into
+     * @param targetType    Runtime class for &lt;T&gt;
+     * @param json          input stream delivering UTF-8 encoded JSON
+     * @return the resulting object
+     */
+    final public <T> T parse(Class<T> targetType, InputStream json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json input stream cannot be null");
+        }
+        return parse(targetType, new InputStreamSource(json, false));
+    }
+
+    /**
+     * Returns an iterator over a sequence of JSON documents read from the given source, e.g. newline-delimited JSON
+     * or concatenated JSON values. All documents are parsed with one tokenizer, so its window and key symbol table
+     * are reused for every document.
+     *
+     * @param <T>           The type to parse the documents into
+     * @param targetType    Runtime class for &lt;T&gt;. If <code>Object.class</code>, documents are parsed as if
+     *                      parsed by {@link #parse(JSONCharacterSource)}.
+     * @param source        json character source to parse
+     * @return iterator over the documents. Must be closed to release the source.
+     */
+    public <T> JSONDocumentIterator<T> parseDocuments(Class<T> targetType, JSONCharacterSource source)
+    {
+        if (targetType == null)
+        {
+            throw new IllegalArgumentException("target type cannot be null");
+        }
+
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null");
+        }
+
+        return new JSONDocumentIterator<T>(this, targetType, createTokenizer(source));
+    }
+
+    /**
+     * Returns an iterator over a sequence of UTF-8 encoded JSON documents read from the given input stream. The stream
+     * is not closed.
+     *
+     * @param <T>           The type to parse the documents into
+     * @param targetType    Runtime class for &lt;T&gt;
+     * @param json          input stream delivering UTF-8 encoded JSON documents
+     * @return iterator over the documents
+     * @see #parseDocuments(Class, JSONCharacterSource)
+     */
+    public <T> JSONDocumentIterator<T> parseDocuments(Class<T> targetType, InputStream json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json input stream cannot be null");
+        }
+        return parseDocuments(targetType, new InputStreamSource(json, false));
+    }
+
+    /**
+     * Parses the next JSON document from the given tokenizer.
+     */
+    <T> T parseDocument(Class<T> targetType, JSONTokenizer tokenizer)
+    {
+        if (targetType.equals(Object.class))
+        {
+            return (T) parse(tokenizer, (Set<String>) null);
+        }
+        return parse(targetType, tokenizer, null);
+    }
+
+    /**
+     * Returns a lazy iterator over the elements of the top-level JSON array read from the given source. Every element
+     * is parsed on demand, so memory use does not depend on the size of the array. Type hints for the "[]" path and
+     * the type mapper are applied to every element like when parsing the array as a whole.
+     *
+     * @param <T>           The type to parse the elements into
+     * @param elementType   Runtime class for &lt;T&gt;. If <code>Object.class</code>, the elements are parsed
+     *                      without type hint.
+     * @param source        json character source delivering a JSON array
+     * @return iterator over the elements. Must be closed to release the source.
+     */
+    public <T> JSONArrayIterator<T> iterate(Class<T> elementType, JSONCharacterSource source)
+    {
+        if (elementType == null)
+        {
+            throw new IllegalArgumentException("element type cannot be null");
+        }
+
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null");
+        }
+
+        return new JSONArrayIterator<T>(this, elementType, createTokenizer(source));
+    }
+
+    /**
+     * Returns a lazy iterator over the elements of the top-level JSON array read from the given UTF-8 encoded input
+     * stream. The stream is not closed.
+     *
+     * @param <T>           The type to parse the elements into
+     * @param elementType   Runtime class for &lt;T&gt;
+     * @param json          input stream delivering a UTF-8 encoded JSON array
+     * @return iterator over the elements
+     * @see #iterate(Class, JSONCharacterSource)
+     */
+    public <T> JSONArrayIterator<T> iterate(Class<T> elementType, InputStream json)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json input stream cannot be null");
+        }
+        return iterate(elementType, new InputStreamSource(json, false));
+    }
+
+    /**
+     * Parses the elements of the top-level JSON array in the given UTF-8 encoded byte array in parallel on the common
+     * fork/join pool.
+     *
+     * @param <T>           The type to parse the elements into
+     * @param elementType   Runtime class for &lt;T&gt;
+     * @param json          UTF-8 encoded JSON array
+     * @return list of the elements in input order
+     * @see #parseArrayParallel(Class, byte[], String, ForkJoinPool)
+     */
+    public <T> List<T> parseArrayParallel(Class<T> elementType, byte[] json)
+    {
+        return parseArrayParallel(elementType, json, "", ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the elements of the JSON array at the given parse path in the given UTF-8 encoded byte array in parallel.
+     * <p>
+     * A fast sequential pre-scan over the structure of the array splits it at element boundaries into chunks, which
+     * are bound on the given pool and reassembled in input order. Every worker uses its own copy of this parser with
+     * its own key symbol table. Type hints and other path based settings apply to the elements like for
+     * {@link #iterate(Class, JSONCharacterSource)}, i.e. relative to the array. Path consumers registered with
+     * {@link #addPathConsumer(PathMatcher, Consumer)} are not called by the workers. The rest of the document is not
+     * parsed.
+     *
+     * @param <T>           The type to parse the elements into
+     * @param elementType   Runtime class for &lt;T&gt;. If <code>Object.class</code>, the elements are parsed
+     *                      without type hint.
+     * @param json          UTF-8 encoded JSON
+     * @param path          parse path of the array consisting of object keys only, e.g. ".data.items", or "" for
+     *                      the top-level array
+     * @param pool          pool to parse the chunks on
+     * @return list of the elements in input order
+     *
+     * @throws JSONParseException if the JSON is invalid or there is no array at the given path
+     */
+    public <T> List<T> parseArrayParallel(Class<T> elementType, byte[] json, String path, ForkJoinPool pool)
+    {
+        if (elementType == null)
+        {
+            throw new IllegalArgumentException("element type cannot be null");
+        }
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json bytes cannot be null");
+        }
+        if (path == null)
+        {
+            throw new IllegalArgumentException("path cannot be null");
+        }
+        if (pool == null)
+        {
+            throw new IllegalArgumentException("pool cannot be null");
+        }
+        return ParallelArrayParser.parse(this, elementType, json, path, pool);
+    }
+
+    /**
+     * Parses a single element of an indexed JSON array. Only the bytes of the element are read from the given
+     * channel, so the cost does not depend on the position of the element. Type hints and other path based settings
+     * apply to the element like for {@link #iterate(Class, JSONCharacterSource)}.
+     *
+     * @param <T>           The type to parse the element into
+     * @param elementType   Runtime class for &lt;T&gt;. If <code>Object.class</code>, the element is parsed
+     *                      without type hint.
+     * @param channel       seekable channel of the indexed JSON, e.g. a {@link java.nio.channels.FileChannel}. Its
+     *                      position is changed.
+     * @param index         offset index of the JSON
+     * @param n             index of the element
+     * @return parsed element
+     *
+     * @throws JSONParseException if the element is invalid or too large to be read into a single buffer
+     */
+    public <T> T parseElement(Class<T> elementType, SeekableByteChannel channel, JSONOffsetIndex index, int n)
+    {
+        if (elementType == null)
+        {
+            throw new IllegalArgumentException("element type cannot be null");
+        }
+        if (channel == null)
+        {
+            throw new IllegalArgumentException("channel cannot be null");
+        }
+        if (index == null)
+        {
+            throw new IllegalArgumentException("index cannot be null");
+        }
+
+        long start = index.getStart(n);
+        long length = index.getEnd(n) - start;
+        if (length > Integer.MAX_VALUE)
+        {
+            throw new JSONParseException("Element " + n + " is too large to be parsed directly: " + length + " bytes",
+                start);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        try
+        {
+            channel.position(start);
+            while (buffer.hasRemaining())
+            {
+                if (channel.read(buffer) < 0)
+                {
+                    throw new JSONParseException("Unexpected end of channel, index does not match the JSON", start);
+                }
             }
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
 
-            return parse( HashMap.class, tokenizer);
+        JSONTokenizer tokenizer = createTokenizer(new ByteArrayJSONSource(buffer.array()));
+        try
+        {
+            return parseArrayElement(elementType, tokenizer, tokenizer.nextType());
         }
-        else if (token.isType(TokenType.NULL) || token.isType(TokenType.FALSE) || token.isType(TokenType.TRUE) || token.isType(TokenType.INTEGER) || token.isType(TokenType.DECIMAL) || token.isType(TokenType.STRING))
+        catch (JSONParseException e)
         {
-            return token.value();
+            long offset = start + tokenizer.getIndex();
+            throw new JSONParseException("Error parsing element " + n + " near byte offset " + offset + ": " +
+                e.getMessage(), offset, e);
         }
-        else
+        finally
         {
-            throw new JSONParseException("Invalid start token "+token);
+            tokenizer.destroy();
         }
     }
 
-    
     /**
-     * Parses a JSON String
-     * @param <T> The type to parse the root object into
-     * @param targetType   Runtime class for &lt;T&gt;
-     * @param json  json string
-     * @return the resulting object
+     * Parses the top-level array element starting with the current token of the given tokenizer.
      */
-    final public <T> T parse(Class<T> targetType, String json)
+    <T> T parseArrayElement(Class<T> elementType, JSONTokenizer tokenizer, TokenType valueType)
     {
-
-        if (targetType == null)
+        Class memberType = elementType.equals(Object.class) ? null : elementType;
+        try
         {
-            throw new IllegalArgumentException("target type cannot be null");
+            return (T) parseArrayElement(new ParseContext(null, memberType, null), tokenizer, valueType);
         }
-
-        if (json == null)
+        catch (InstantiationException e)
         {
-            throw new IllegalArgumentException("json string cannot be null");
+            throw ExceptionWrapper.wrap(e);
         }
-
-        JSONTokenizer tokenizer = new JSONTokenizer(json, allowSingleQuotes);
-        try
+        catch (IllegalAccessException e)
         {
-            return parse(targetType, tokenizer);
+            throw ExceptionWrapper.wrap(e);
         }
-        finally
+        catch (InvocationTargetException e)
         {
-            tokenizer.destroy();
+            throw ExceptionWrapper.wrap(e);
+        }
+        catch (NoSuchMethodException e)
+        {
+            throw ExceptionWrapper.wrap(e);
         }
     }
 
     /**
-     * Parses a JSON String
-     * @param <T>           The type to parse the root object into
-     * @param targetType    Runtime class for &lt;T&gt;
-     * @param source        json character source to parse
-     * @return the resulting object
+     * Returns the projected parse paths that must be bound before parsing can stop early or <code>null</code> if
+     * parsing cannot stop early.
      */
-    final public <T> T parse(Class<T> targetType, JSONCharacterSource source)
+    private Set<String> remainingPaths()
     {
-
-        if (targetType == null)
-        {
-            throw new IllegalArgumentException("target type cannot be null");
-        }
-
-        if (source == null)
+        if (!terminateEarly || projection == null)
         {
-            throw new IllegalArgumentException("character source cannot be null");
+            return null;
         }
 
-        JSONTokenizer tokenizer = new JSONTokenizer(source, allowSingleQuotes);
-        try
-        {
-            return parse(targetType, tokenizer);
-        }
-        finally
+        for (String path : projection)
         {
-            tokenizer.destroy();
+            if (path.indexOf("[]") >= 0)
+            {
+                return null;
+            }
         }
+        return new HashSet<String>(projection);
     }
 
-    private <T> T parse(Class<T> targetType, JSONTokenizer tokenizer)
+    private <T> T parse(Class<T> targetType, JSONTokenizer tokenizer, Set<String> remainingPaths)
     {
         T t;
         try
         {
-            Token token = tokenizer.next();
-            TokenType type = token.type();
+            TokenType type = tokenizer.nextType();
             if (type == TokenType.BRACE_OPEN)
             {
                 Class typeHint = getTypeHint("", tokenizer, targetType, true);
@@ -404,7 +1294,7 @@ public class JSONParser
 
                 JSONClassInfo newClassInfo = TypeAnalyzer.getClassInfo(objectSupport, targetType);
                 t = (T) createNewTargetInstance(targetType, newClassInfo, true);
-                parseObjectInto(new ParseContext(t,null,newClassInfo), tokenizer);
+                parseObjectInto(new ParseContext(t,null,newClassInfo,remainingPaths), tokenizer);
                 t = DelayedConstructor.unwrap(t);
 
                 if (newClassInfo != null)
@@ -421,7 +1311,7 @@ public class JSONParser
             {
                 JSONClassInfo newClassInfo = TypeAnalyzer.getClassInfo(objectSupport, targetType);
                 t = (T) createNewTargetInstance(targetType, newClassInfo, false);
-                parseArrayInto(new ParseContext(t,null,newClassInfo), tokenizer);
+                parseArrayInto(new ParseContext(t,null,newClassInfo,remainingPaths), tokenizer);
 
                 if (newClassInfo != null)
                 {
@@ -434,7 +1324,7 @@ public class JSONParser
             }
             else if (type == TokenType.STRING && Enum.class.isAssignableFrom(targetType) )
             {
-                return (T)Enum.valueOf((Class<Enum>)targetType, (String)token.value());
+                return (T)Enum.valueOf((Class<Enum>)targetType, tokenizer.stringValue());
             }
             else if (type == TokenType.NULL)
             {
@@ -442,7 +1332,7 @@ public class JSONParser
             }
             else
             {
-                throw new JSONParseException("unexpected token " + token);
+                throw new JSONParseException("unexpected token " + tokenizer.currentToken());
             }
             return t;
         }
@@ -475,6 +1365,87 @@ public class JSONParser
         this.allowSingleQuotes = allowSingleQuotes;
     }
 
+    public boolean isAllowSingleQuotes()
+    {
+        return allowSingleQuotes;
+    }
+
+    public NumberMode getNumberMode()
+    {
+        return numberMode;
+    }
+
+    /**
+     * Sets the java types used for JSON numbers. The default {@link NumberMode#BIG_DECIMAL} keeps the exact
+     * value of every number, {@link NumberMode#DOUBLE} parses decimals into doubles and integers into the smallest
+     * fitting type.
+     *
+     * @param numberMode    number mode
+     */
+    public void setNumberMode(NumberMode numberMode)
+    {
+        if (numberMode == null)
+        {
+            throw new IllegalArgumentException("number mode cannot be null");
+        }
+        this.numberMode = numberMode;
+    }
+
+    /**
+     * Sets a symbol table shared by all tokenizers of this parser, so that object keys of all parsed documents
+     * are canonicalized to the same String instances. By default every tokenizer uses its own symbol table.
+     *
+     * @param symbolTable   shared symbol table or <code>null</code>
+     */
+    public void setSymbolTable(SymbolTable symbolTable)
+    {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Enables canonicalization of short string values in addition to object keys.
+     *
+     * @param canonicalizeValues    <code>true</code> to canonicalize short string values
+     * @see JSONTokenizer#setCanonicalizeValues(boolean)
+     */
+    public void setCanonicalizeValues(boolean canonicalizeValues)
+    {
+        this.canonicalizeValues = canonicalizeValues;
+    }
+
+    /**
+     * Enables a structural index for UTF-8 byte arrays parsed in memory, e.g. by {@link #parse(Class, byte[])}. The
+     * index is built in a first pass over the whole array and speeds up finding the ends of strings and skipping
+     * values, e.g. for projections. It costs four bytes per structural character, so it pays off for large documents
+     * that are mostly parsed or skipped.
+     *
+     * @param structuralIndexing    <code>true</code> to use a structural index for byte arrays
+     * @see JSONTokenizer#setStructuralIndexing(boolean)
+     */
+    public void setStructuralIndexing(boolean structuralIndexing)
+    {
+        this.structuralIndexing = structuralIndexing;
+    }
+
+    private JSONTokenizer createTokenizer(String json)
+    {
+        return configure(new JSONTokenizer(json, allowSingleQuotes));
+    }
+
+    JSONTokenizer createTokenizer(JSONCharacterSource source)
+    {
+        return configure(new JSONTokenizer(source, allowSingleQuotes));
+    }
+
+    private JSONTokenizer configure(JSONTokenizer tokenizer)
+    {
+        tokenizer.setNumberMode(numberMode);
+        tokenizer.setSymbolTable(symbolTable);
+        tokenizer.setCanonicalizeValues(canonicalizeValues);
+        tokenizer.setStructuralIndexing(structuralIndexing);
+        return tokenizer;
+    }
+
     /**
      * Expects the next object of the given tokenizer to be an array and parses it into the given {@link ParseContext}
      * @param cx            parse context
@@ -488,12 +1459,12 @@ public class JSONParser
     private void parseArrayInto(ParseContext cx, JSONTokenizer tokenizer) throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException
     {
         boolean containerIsCollection = Collection.class.isAssignableFrom(cx.target.getClass());
+        Consumer<Object> consumer = pathConsumers.isEmpty() ? null : getPathConsumer(cx.getParsePathInfo("[]"));
 
         boolean first = true;
         while(true)
         {
-            Token valueToken = tokenizer.next();
-            TokenType valueType = valueToken.type();
+            TokenType valueType = tokenizer.nextType();
             if (valueType == TokenType.BRACKET_CLOSE)
             {
                 break;
@@ -501,75 +1472,94 @@ public class JSONParser
 
             if (!first)
             {
-                valueToken.expect(TokenType.COMMA);
-                valueToken = tokenizer.next();
-                valueType = valueToken.type();
+                if (valueType != TokenType.COMMA)
+                {
+                    tokenizer.currentToken().expect(TokenType.COMMA);
+                }
+                valueType = tokenizer.nextType();
             }
 
-            Object value;
-            Class typeHint = getTypeHint(cx, cx.getParsePathInfo("[]"), tokenizer, "[]", false, valueType.isPrimitive());
-            if (valueType.isPrimitive())
+            Object value = parseArrayElement(cx, tokenizer, valueType);
+
+            if (consumer != null)
+            {
+                consumer.accept(value);
+            }
+            else if (containerIsCollection)
             {
-                value = valueToken.value();
+                ((Collection)cx.target).add(value);
+            }
+            else 
+            {
+                throw new JSONParseException("Cannot add value "+value+" to "+cx.target+" ( "+cx.target.getClass()+" )");
+            }
 
-                if(typeHint != null)
-                {
-                    value = convertValueTo(value, typeHint, typeConvertersByClass);
-                }
+            first = false;
+        }
+    }
+
+    /**
+     * Parses the array element starting with the current token of the given tokenizer.
+     *
+     * @param cx            parse context of the array
+     * @param tokenizer     tokenizer
+     * @param valueType     type of the current token
+     * @return parsed element
+     */
+    private Object parseArrayElement(ParseContext cx, JSONTokenizer tokenizer, TokenType valueType) throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException
+    {
+        // read the current value before the type mapper gets to look ahead
+        Object value = valueType.isPrimitive() ? tokenizer.value() : null;
+        Class typeHint = getTypeHint(cx, cx.getParsePathInfo("[]"), tokenizer, "[]", false, valueType.isPrimitive());
+        if (valueType.isPrimitive())
+        {
+            if(typeHint != null)
+            {
+                value = convertValueTo(value, typeHint, typeConvertersByClass);
             }
-            else
+        }
+        else
+        {
+            Object newTarget = null;
+            if (valueType == TokenType.BRACE_OPEN)
             {
-                Object newTarget = null;
-                if (valueType == TokenType.BRACE_OPEN)
-                {
-                    JSONClassInfo classInfo = TypeAnalyzer.getClassInfo(objectSupport, typeHint);
-                    newTarget = createNewTargetInstance(typeHint, classInfo, true);
-                    parseObjectInto(cx.push(newTarget,null,"[]",classInfo), tokenizer);
-                    newTarget = DelayedConstructor.unwrap(newTarget);
+                JSONClassInfo classInfo = TypeAnalyzer.getClassInfo(objectSupport, typeHint);
+                newTarget = createNewTargetInstance(typeHint, classInfo, true);
+                parseObjectInto(cx.push(newTarget,null,"[]",classInfo), tokenizer);
+                newTarget = DelayedConstructor.unwrap(newTarget);
 
-                    if (classInfo != null)
+                if (classInfo != null)
+                {
+                    Method postConstructMethod = classInfo.getPostConstructMethod();
+                    if (postConstructMethod != null)
                     {
-                        Method postConstructMethod = classInfo.getPostConstructMethod();
-                        if (postConstructMethod != null)
-                        {
-                            postConstructMethod.invoke(newTarget);
-                        }
+                        postConstructMethod.invoke(newTarget);
                     }
-
                 }
-                else if (valueType == TokenType.BRACKET_OPEN)
+
+            }
+            else if (valueType == TokenType.BRACKET_OPEN)
+            {
+                JSONClassInfo classInfo = TypeAnalyzer.getClassInfo(objectSupport, typeHint);
+                newTarget = createNewTargetInstance(typeHint, classInfo, false);
+                parseArrayInto(cx.push(newTarget,null,"[]",classInfo), tokenizer);
+                newTarget = DelayedConstructor.unwrap(newTarget);
+                if (classInfo != null)
                 {
-                    JSONClassInfo classInfo = TypeAnalyzer.getClassInfo(objectSupport, typeHint);
-                    newTarget = createNewTargetInstance(typeHint, classInfo, false);
-                    parseArrayInto(cx.push(newTarget,null,"[]",classInfo), tokenizer);
-                    newTarget = DelayedConstructor.unwrap(newTarget);
-                    if (classInfo != null)
+                    Method postConstructMethod = classInfo.getPostConstructMethod();
+                    if (postConstructMethod != null)
                     {
-                        Method postConstructMethod = classInfo.getPostConstructMethod();
-                        if (postConstructMethod != null)
-                        {
-                            postConstructMethod.invoke(newTarget);
-                        }
+                        postConstructMethod.invoke(newTarget);
                     }
                 }
-                else
-                {
-                    throw new JSONParseException("Unexpected token "+valueToken);
-                }
-                value = newTarget;
-            }
-
-            if (containerIsCollection)
-            {
-                ((Collection)cx.target).add(value);
             }
-            else 
+            else
             {
-                throw new JSONParseException("Cannot add value "+value+" to "+cx.target+" ( "+cx.target.getClass()+" )");
+                throw new JSONParseException("Unexpected token "+Token.getToken(valueType));
             }
-
-            first = false;
+            value = newTarget;
         }
+        return value;
     }
 
     private void parseObjectInto(ParseContext cx, JSONTokenizer tokenizer) throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException
@@ -577,31 +1567,43 @@ public class JSONParser
         boolean containerIsMap = Map.class.isAssignableFrom(cx.target.getClass());
         boolean containerIsDynAttrs = cx.target instanceof DynamicProperties;
 
+        String boundPath = null;
         boolean first = true;
         while (true)
         {
-            Token key ;
+            if (boundPath != null)
+            {
+                cx.bound(boundPath);
+                boundPath = null;
+            }
+            if (cx.isComplete())
+            {
+                // stop reading, the remaining members are not needed
+                break;
+            }
+
+            TokenType keyType ;
             if (first)
             {
-                key = tokenizer.expectNext(TokenType.STRING, TokenType.BRACE_CLOSE);
+                keyType = tokenizer.expectNextType(TokenType.STRING, TokenType.BRACE_CLOSE);
             }
             else
             {
-                key = tokenizer.expectNext( TokenType.COMMA, TokenType.BRACE_CLOSE);
+                keyType = tokenizer.expectNextType( TokenType.COMMA, TokenType.BRACE_CLOSE);
 
             }
-            if (key.type() == TokenType.BRACE_CLOSE)
+            if (keyType == TokenType.BRACE_CLOSE)
             {
                 break;
             }
 
             if (!first)
             {
-                key = tokenizer.expectNext( TokenType.STRING);
+                tokenizer.expectNextType( TokenType.STRING);
             }
             first = false;
 
-            String jsonName = (String)key.value();
+            String jsonName = tokenizer.stringValue();
             if (jsonName.length() == 0)
             {
                 throw new JSONParseException("Invalid empty property name");
@@ -609,9 +1611,19 @@ public class JSONParser
             
             String name = null;
 
-            tokenizer.expectNext(TokenType.COLON);
-            Token valueToken = tokenizer.next();
-            TokenType valueType = valueToken.type();
+            tokenizer.expectNextType(TokenType.COLON);
+
+            String parsePathInfo = cx.getParsePathInfo(jsonName);
+            if (projection != null && !isProjected(parsePathInfo))
+            {
+                tokenizer.skipValue();
+                continue;
+            }
+            boundPath = parsePathInfo;
+
+            TokenType valueType = tokenizer.nextType();
+            // read the current value before the type mapper gets to look ahead
+            Object value = valueType.isPrimitive() ? tokenizer.value() : null;
 
             boolean isProperty = false;
             boolean isIgnoredOnParse = false;
@@ -670,13 +1682,8 @@ public class JSONParser
                 name = jsonName;
             }
 
-            Class typeHint = getTypeHint( cx, cx.getParsePathInfo(jsonName), tokenizer, jsonName, isProperty, valueType.isPrimitive());
-            Object value;
-            if (valueType.isPrimitive())
-            {
-                value = valueToken.value();
-            }
-            else
+            Class typeHint = getTypeHint( cx, parsePathInfo, tokenizer, jsonName, isProperty, valueType.isPrimitive());
+            if (!valueType.isPrimitive())
             {
                 Object newTarget = null;
                 if (valueType == TokenType.BRACE_OPEN)
@@ -830,7 +1837,7 @@ public class JSONParser
                 }
                 else
                 {
-                    throw new JSONParseException("Unexpected token "+valueToken);
+                    throw new JSONParseException("Unexpected token "+Token.getToken(valueType));
                 }
 
                 value = newTarget;
@@ -873,6 +1880,11 @@ public class JSONParser
             }
 
         } // end while
+
+        if (boundPath != null)
+        {
+            cx.bound(boundPath);
+        }
     }
 
 
@@ -974,6 +1986,10 @@ public class JSONParser
             {
                 convertedValue = typeConverter.fromJSON(value);
             }
+            else if (value instanceof Number)
+            {
+                convertedValue = convertNumber((Number) value, targetClass);
+            }
             else if (List.class.isInstance(value))
             {
                 List list = (List)value;
@@ -1009,6 +2025,42 @@ public class JSONParser
     }
 
 
+    /**
+     * Converts number token values to the common primitive number types without a detour through the generic
+     * conversion machinery.
+     *
+     * @param value         number value
+     * @param targetClass   target class
+     * @return converted value or <code>null</code> if the conversion might lose information or is not covered.
+     */
+    private static Object convertNumber(Number value, Class targetClass)
+    {
+        boolean integral = value instanceof Integer || value instanceof Long;
+        if (targetClass == Integer.class || targetClass == int.class)
+        {
+            long l = value.longValue();
+            if (integral && l >= Integer.MIN_VALUE && l <= Integer.MAX_VALUE)
+            {
+                return (int) l;
+            }
+        }
+        else if (targetClass == Long.class || targetClass == long.class)
+        {
+            if (integral)
+            {
+                return value.longValue();
+            }
+        }
+        else if (targetClass == Double.class || targetClass == double.class)
+        {
+            if (integral || value instanceof Double)
+            {
+                return value.doubleValue();
+            }
+        }
+        return null;
+    }
+
     private Object createNewTargetInstance(Class typeHint, JSONClassInfo classInfo, boolean object)
     {
         if (typeHint == null || typeHint.equals(Object.class))
@@ -1159,25 +2211,117 @@ public class JSONParser
         return typeHint;
     }
 
+    /**
+     * Returns <code>true</code> if the value at the given parse path is one of the projected values, leads to one of
+     * them or lies within one of them.
+     */
+    private boolean isProjected(String parsePathInfo)
+    {
+        for (String path : projection)
+        {
+            if (isSameOrNested(parsePathInfo, path) || isSameOrNested(path, parsePathInfo))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the given tokenizer up to and including the opening bracket of the array at the given parse path. The
+     * path consists of object keys only, e.g. ".data.items", or is "" for the top-level array.
+     *
+     * @throws JSONParseException if there is no array at the given path
+     */
+    static void seekArray(JSONTokenizer tokenizer, String path)
+    {
+        String current = "";
+        while (!current.equals(path))
+        {
+            tokenizer.expectNext(TokenType.BRACE_OPEN);
+            Token token = tokenizer.expectNext(TokenType.STRING, TokenType.BRACE_CLOSE);
+            while (true)
+            {
+                if (token.type() == TokenType.BRACE_CLOSE)
+                {
+                    throw new JSONParseException("No array at path " + path + ", " + current + " ends at offset " +
+                        tokenizer.getIndex(), tokenizer.getIndex());
+                }
+
+                String key = (String) token.value();
+                tokenizer.expectNext(TokenType.COLON);
+                if (isSameOrNested(path, current + "." + key))
+                {
+                    current = current + "." + key;
+                    break;
+                }
+                tokenizer.skipValue();
+                if (tokenizer.expectNext(TokenType.COMMA, TokenType.BRACE_CLOSE).type() == TokenType.COMMA)
+                {
+                    token = tokenizer.expectNext(TokenType.STRING);
+                }
+                else
+                {
+                    token = tokenizer.currentToken();
+                }
+            }
+        }
+        tokenizer.expectNext(TokenType.BRACKET_OPEN);
+    }
+
+    static boolean isSameOrNested(String parsePath, String parentPath)
+    {
+        if (!parsePath.startsWith(parentPath))
+        {
+            return false;
+        }
+        if (parsePath.length() == parentPath.length())
+        {
+            return true;
+        }
+        char c = parsePath.charAt(parentPath.length());
+        return c == '.' || c == '[';
+    }
+
+    private Consumer<Object> getPathConsumer(String parsePathInfo)
+    {
+        for (Map.Entry<PathMatcher, Consumer<Object>> e : pathConsumers.entrySet())
+        {
+            if (e.getKey().matches(parsePathInfo, Object.class))
+            {
+                return e.getValue();
+            }
+        }
+        return null;
+    }
+
     private class ParseContext
     {
         private final Object target;
         private final ParseContext parent;
         private final Class memberType;
         private final JSONClassInfo classInfo;
+        /** projected parse paths not bound yet, shared by all contexts of one parse run */
+        private final Set<String> remainingPaths;
         private String info="";
 
         public ParseContext(Object target, Class memberType, JSONClassInfo classInfo)
         {
-            this(target,memberType,null, classInfo);
+            this(target, memberType, classInfo, null);
+        }
+
+        public ParseContext(Object target, Class memberType, JSONClassInfo classInfo, Set<String> remainingPaths)
+        {
+            this(target,memberType,null, classInfo, remainingPaths);
         }
 
-        private ParseContext(Object target, Class memberType, ParseContext parent, JSONClassInfo classInfo)
+        private ParseContext(Object target, Class memberType, ParseContext parent, JSONClassInfo classInfo, Set<String> remainingPaths)
         {
             this.target = target;
             this.parent = parent;
             this.memberType = memberType;
             this.classInfo = classInfo;
+            this.remainingPaths = remainingPaths;
 
         }
 
@@ -1188,7 +2332,7 @@ public class JSONParser
 
         public ParseContext push(Object target, Class memberType, String info, JSONClassInfo classInfo)
         {
-            ParseContext child = new ParseContext(target, memberType, this, classInfo);
+            ParseContext child = new ParseContext(target, memberType, this, classInfo, remainingPaths);
             child.info = this.info + info;
             return child;
 
@@ -1199,6 +2343,25 @@ public class JSONParser
             return parent;
         }
 
+        /**
+         * Marks the value at the given parse path as bound.
+         */
+        public void bound(String parsePathInfo)
+        {
+            if (remainingPaths != null)
+            {
+                remainingPaths.remove(parsePathInfo);
+            }
+        }
+
+        /**
+         * Returns <code>true</code> if parsing can stop because all projected values were bound.
+         */
+        public boolean isComplete()
+        {
+            return remainingPaths != null && remainingPaths.isEmpty();
+        }
+
         public String getParsePathInfo(String name)
         {
             String parsePathInfo;
@@ -0,0 +1,182 @@
+package org.svenson;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary representation of a parsed JSON document in a byte buffer, usually a direct one outside of the
+ * Java heap. Created by {@link JSONParser#parseTape(org.svenson.tokenize.JSONCharacterSource)}.
+ * <p>
+ * Like the tape of simdjson, the document is stored as a sequence of 64-bit words in document order. The highest
+ * byte of each word holds the type character, the lower 56 bits the payload:
+ * <ul>
+ *     <li><code>'{'</code> and <code>'['</code>: number of values (saturated at 24 bits) in bits 32 to 55, index of
+ *     the word after the matching end in bits 0 to 31</li>
+ *     <li><code>'}'</code> and <code>']'</code>: index of the matching start</li>
+ *     <li><code>'"'</code>: offset of the string in the string area. Object keys are stored like string values.</li>
+ *     <li><code>'l'</code> and <code>'d'</code>: the following word holds the long value or the bits of the
+ *     double value</li>
+ *     <li><code>'N'</code>: offset of the text of a decimal that can't be represented as double</li>
+ *     <li><code>'t'</code>, <code>'f'</code> and <code>'n'</code>: true, false and null</li>
+ * </ul>
+ * The string area follows the tape and stores every string as 32-bit big-endian length followed by the UTF-8 bytes.
+ * <p>
+ * The tape is read-only and can be navigated with {@link #root()} from multiple threads.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public final class JSONTape
+{
+    final static char OBJECT_START = '{';
+
+    final static char OBJECT_END = '}';
+
+    final static char ARRAY_START = '[';
+
+    final static char ARRAY_END = ']';
+
+    final static char STRING = '"';
+
+    final static char LONG = 'l';
+
+    final static char DOUBLE = 'd';
+
+    final static char BIG_NUMBER = 'N';
+
+    final static char TRUE = 't';
+
+    final static char FALSE = 'f';
+
+    final static char NULL = 'n';
+
+    final static int MAX_COUNT = 0xFFFFFF;
+
+    private final static long PAYLOAD_MASK = (1L << 56) - 1;
+
+    private final ByteBuffer buffer;
+
+    private final int tapeLength;
+
+    private final int size;
+
+    JSONTape(ByteBuffer buffer, int tapeLength, int size)
+    {
+        this.buffer = buffer;
+        this.tapeLength = tapeLength;
+        this.size = size;
+    }
+
+    static long word(char type, long payload)
+    {
+        return ((long) type << 56) | payload;
+    }
+
+    /**
+     * Returns the buffer containing the tape, e.g. to return it to a pool once the tape is no longer used.
+     *
+     * @return buffer
+     */
+    public ByteBuffer getBuffer()
+    {
+        return buffer;
+    }
+
+    /**
+     * Returns the number of bytes used in the buffer.
+     *
+     * @return size in bytes
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the root value of the document.
+     *
+     * @return root value
+     */
+    public JSONTapeNode root()
+    {
+        return new JSONTapeNode(this, 0);
+    }
+
+    char type(int index)
+    {
+        return (char) (buffer.getLong(index * 8) >>> 56);
+    }
+
+    long payload(int index)
+    {
+        return buffer.getLong(index * 8) & PAYLOAD_MASK;
+    }
+
+    /**
+     * Returns the complete word at the given index.
+     */
+    long rawWord(int index)
+    {
+        return buffer.getLong(index * 8);
+    }
+
+    /**
+     * Returns the index of the word after the value starting at the given index.
+     */
+    int next(int index)
+    {
+        switch (type(index))
+        {
+            case OBJECT_START:
+            case ARRAY_START:
+                return (int) payload(index);
+            case LONG:
+            case DOUBLE:
+                return index + 2;
+            default:
+                return index + 1;
+        }
+    }
+
+    private int stringLength(int offset)
+    {
+        int position = tapeLength * 8 + offset;
+        return ((buffer.get(position) & 0xFF) << 24) | ((buffer.get(position + 1) & 0xFF) << 16) |
+            ((buffer.get(position + 2) & 0xFF) << 8) | (buffer.get(position + 3) & 0xFF);
+    }
+
+    /**
+     * Returns the string stored for the string word at the given index.
+     */
+    String string(int index)
+    {
+        int offset = (int) payload(index);
+        int length = stringLength(offset);
+        byte[] bytes = new byte[length];
+        ByteBuffer source = buffer.duplicate();
+        source.position(tapeLength * 8 + offset + 4);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns <code>true</code> if the string word at the given index holds the given UTF-8 encoded string.
+     */
+    boolean stringEquals(int index, byte[] utf8)
+    {
+        int offset = (int) payload(index);
+        if (stringLength(offset) != utf8.length)
+        {
+            return false;
+        }
+        int position = tapeLength * 8 + offset + 4;
+        for (int i = 0; i < utf8.length; i++)
+        {
+            if (buffer.get(position + i) != utf8[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+}
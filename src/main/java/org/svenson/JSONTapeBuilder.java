@@ -0,0 +1,189 @@
+package org.svenson;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * {@link JSONHandler} recording the events of a document as {@link JSONTape}.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+final class JSONTapeBuilder
+    implements JSONHandler
+{
+    private long[] tape = new long[64];
+
+    private int tapeLength;
+
+    private byte[] strings = new byte[256];
+
+    private int stringsLength;
+
+    /**
+     * Tape indexes of the open containers.
+     */
+    private int[] open = new int[16];
+
+    /**
+     * Number of values in the open containers.
+     */
+    private int[] counts = new int[16];
+
+    private int depth;
+
+    private void add(long word)
+    {
+        if (tapeLength == tape.length)
+        {
+            tape = Arrays.copyOf(tape, tapeLength * 2);
+        }
+        tape[tapeLength++] = word;
+    }
+
+    private void add(char type, long payload)
+    {
+        if (depth > 0)
+        {
+            counts[depth - 1]++;
+        }
+        add(JSONTape.word(type, payload));
+    }
+
+    private void addString(char type, String value)
+    {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int needed = stringsLength + 4 + bytes.length;
+        if (needed > strings.length)
+        {
+            strings = Arrays.copyOf(strings, Math.max(needed, strings.length * 2));
+        }
+        int offset = stringsLength;
+        int length = bytes.length;
+        strings[offset] = (byte) (length >>> 24);
+        strings[offset + 1] = (byte) (length >>> 16);
+        strings[offset + 2] = (byte) (length >>> 8);
+        strings[offset + 3] = (byte) length;
+        System.arraycopy(bytes, 0, strings, offset + 4, length);
+        stringsLength = needed;
+        add(type, offset);
+    }
+
+    private void startContainer(char type)
+    {
+        if (depth == open.length)
+        {
+            open = Arrays.copyOf(open, depth * 2);
+            counts = Arrays.copyOf(counts, depth * 2);
+        }
+        add(type, 0);
+        open[depth] = tapeLength - 1;
+        counts[depth] = 0;
+        depth++;
+    }
+
+    private void endContainer(char type)
+    {
+        depth--;
+        int start = open[depth];
+        add(JSONTape.word(type, start));
+        // keys don't count as values of an object
+        int count = type == JSONTape.OBJECT_END ? counts[depth] / 2 : counts[depth];
+        tape[start] |= ((long) Math.min(count, JSONTape.MAX_COUNT) << 32) | tapeLength;
+    }
+
+    public void startObject()
+    {
+        startContainer(JSONTape.OBJECT_START);
+    }
+
+    public void key(String key)
+    {
+        addString(JSONTape.STRING, key);
+    }
+
+    public void endObject()
+    {
+        endContainer(JSONTape.OBJECT_END);
+    }
+
+    public void startArray()
+    {
+        startContainer(JSONTape.ARRAY_START);
+    }
+
+    public void endArray()
+    {
+        endContainer(JSONTape.ARRAY_END);
+    }
+
+    public void stringValue(String value)
+    {
+        addString(JSONTape.STRING, value);
+    }
+
+    public void longValue(long value)
+    {
+        add(JSONTape.LONG, 0);
+        add(value);
+    }
+
+    public void doubleValue(double value)
+    {
+        add(JSONTape.DOUBLE, 0);
+        add(Double.doubleToRawLongBits(value));
+    }
+
+    public void numberValue(BigDecimal value)
+    {
+        double d = value.doubleValue();
+        if (!Double.isInfinite(d) && BigDecimal.valueOf(d).compareTo(value) == 0)
+        {
+            doubleValue(d);
+        }
+        else
+        {
+            addString(JSONTape.BIG_NUMBER, value.toString());
+        }
+    }
+
+    public void booleanValue(boolean value)
+    {
+        add(value ? JSONTape.TRUE : JSONTape.FALSE, 0);
+    }
+
+    public void nullValue()
+    {
+        add(JSONTape.NULL, 0);
+    }
+
+    /**
+     * Writes the recorded tape into a buffer from the given allocator.
+     */
+    JSONTape build(IntFunction<ByteBuffer> allocator)
+    {
+        long size = (long) tapeLength * 8 + stringsLength;
+        if (size > Integer.MAX_VALUE)
+        {
+            throw new JSONParseException("Document too large for a tape: " + size + " bytes");
+        }
+
+        ByteBuffer buffer = allocator.apply((int) size);
+        if (buffer.capacity() < size)
+        {
+            throw new IllegalStateException("Allocated buffer too small: " + buffer.capacity() + " < " + size);
+        }
+        buffer.order(ByteOrder.nativeOrder());
+
+        ByteBuffer target = buffer.duplicate().order(ByteOrder.nativeOrder());
+        target.clear();
+        target.asLongBuffer().put(tape, 0, tapeLength);
+        target.position(tapeLength * 8);
+        target.put(strings, 0, stringsLength);
+        return new JSONTape(buffer, tapeLength, (int) size);
+    }
+}
@@ -0,0 +1,260 @@
+package org.svenson;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.svenson.tokenize.TokenType;
+
+/**
+ * Read-only view of one value of a {@link JSONTape}. Nodes are lightweight and can be created and dropped freely.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public final class JSONTapeNode
+{
+    private final JSONTape tape;
+
+    private final int index;
+
+    JSONTapeNode(JSONTape tape, int index)
+    {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    /**
+     * Returns the type of this value as the type of its first token.
+     *
+     * @return {@link TokenType#BRACE_OPEN} for objects, {@link TokenType#BRACKET_OPEN} for arrays,
+     *         {@link TokenType#INTEGER} or {@link TokenType#DECIMAL} for numbers or the type of the primitive value
+     */
+    public TokenType getType()
+    {
+        switch (tape.type(index))
+        {
+            case JSONTape.OBJECT_START:
+                return TokenType.BRACE_OPEN;
+            case JSONTape.ARRAY_START:
+                return TokenType.BRACKET_OPEN;
+            case JSONTape.STRING:
+                return TokenType.STRING;
+            case JSONTape.LONG:
+                return TokenType.INTEGER;
+            case JSONTape.DOUBLE:
+            case JSONTape.BIG_NUMBER:
+                return TokenType.DECIMAL;
+            case JSONTape.TRUE:
+                return TokenType.TRUE;
+            case JSONTape.FALSE:
+                return TokenType.FALSE;
+            default:
+                return TokenType.NULL;
+        }
+    }
+
+    private void expect(char type, String name)
+    {
+        if (tape.type(index) != type)
+        {
+            throw new IllegalStateException("Value is no " + name + ": " + getType());
+        }
+    }
+
+    /**
+     * Returns the number of members of an object or elements of an array.
+     *
+     * @return size
+     * @throws IllegalStateException if this value is no object or array
+     */
+    public int size()
+    {
+        char type = tape.type(index);
+        if (type != JSONTape.OBJECT_START && type != JSONTape.ARRAY_START)
+        {
+            throw new IllegalStateException("Value is no object or array: " + getType());
+        }
+
+        int count = (int) (tape.payload(index) >>> 32);
+        if (count < JSONTape.MAX_COUNT)
+        {
+            return count;
+        }
+
+        // saturated count, count the values
+        int end = (int) tape.payload(index) - 1;
+        count = 0;
+        for (int i = index + 1; i < end; i = tape.next(i))
+        {
+            count++;
+        }
+        return type == JSONTape.OBJECT_START ? count / 2 : count;
+    }
+
+    /**
+     * Returns the value of the given object member.
+     *
+     * @param key   member key
+     * @return member value or <code>null</code> if there is no such member
+     * @throws IllegalStateException if this value is no object
+     */
+    public JSONTapeNode get(String key)
+    {
+        expect(JSONTape.OBJECT_START, "object");
+        byte[] utf8 = key.getBytes(StandardCharsets.UTF_8);
+        int end = (int) tape.payload(index) - 1;
+        for (int i = index + 1; i < end; i = tape.next(i + 1))
+        {
+            if (tape.stringEquals(i, utf8))
+            {
+                return new JSONTapeNode(tape, i + 1);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the keys of this object in document order.
+     *
+     * @return list of keys
+     * @throws IllegalStateException if this value is no object
+     */
+    public List<String> keys()
+    {
+        expect(JSONTape.OBJECT_START, "object");
+        List<String> keys = new ArrayList<String>();
+        int end = (int) tape.payload(index) - 1;
+        for (int i = index + 1; i < end; i = tape.next(i + 1))
+        {
+            keys.add(tape.string(i));
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the array element at the given index.
+     *
+     * @param elementIndex  element index
+     * @return element
+     * @throws IllegalStateException if this value is no array
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public JSONTapeNode get(int elementIndex)
+    {
+        expect(JSONTape.ARRAY_START, "array");
+        if (elementIndex >= 0)
+        {
+            int end = (int) tape.payload(index) - 1;
+            int n = 0;
+            for (int i = index + 1; i < end; i = tape.next(i))
+            {
+                if (n++ == elementIndex)
+                {
+                    return new JSONTapeNode(tape, i);
+                }
+            }
+        }
+        throw new IndexOutOfBoundsException("Invalid index " + elementIndex);
+    }
+
+    /**
+     * Returns the elements of this array.
+     *
+     * @return list of elements
+     * @throws IllegalStateException if this value is no array
+     */
+    public List<JSONTapeNode> elements()
+    {
+        expect(JSONTape.ARRAY_START, "array");
+        List<JSONTapeNode> elements = new ArrayList<JSONTapeNode>();
+        int end = (int) tape.payload(index) - 1;
+        for (int i = index + 1; i < end; i = tape.next(i))
+        {
+            elements.add(new JSONTapeNode(tape, i));
+        }
+        return elements;
+    }
+
+    public String stringValue()
+    {
+        expect(JSONTape.STRING, "string");
+        return tape.string(index);
+    }
+
+    /**
+     * Returns the value of a number as long. Decimals are truncated.
+     *
+     * @return long value
+     * @throws IllegalStateException if this value is no number
+     */
+    public long longValue()
+    {
+        switch (tape.type(index))
+        {
+            case JSONTape.LONG:
+                return tape.rawWord(index + 1);
+            case JSONTape.DOUBLE:
+                return (long) doubleValue();
+            default:
+                return numberValue().longValue();
+        }
+    }
+
+    /**
+     * Returns the value of a number as double.
+     *
+     * @return double value
+     * @throws IllegalStateException if this value is no number
+     */
+    public double doubleValue()
+    {
+        switch (tape.type(index))
+        {
+            case JSONTape.LONG:
+                return (double) tape.rawWord(index + 1);
+            case JSONTape.DOUBLE:
+                return Double.longBitsToDouble(tape.rawWord(index + 1));
+            default:
+                return numberValue().doubleValue();
+        }
+    }
+
+    /**
+     * Returns the value of a number.
+     *
+     * @return {@link Long} for integers in long range, {@link Double} for decimals representable as double,
+     *         {@link BigDecimal} for all other numbers.
+     * @throws IllegalStateException if this value is no number
+     */
+    public Number numberValue()
+    {
+        switch (tape.type(index))
+        {
+            case JSONTape.LONG:
+                return tape.rawWord(index + 1);
+            case JSONTape.DOUBLE:
+                return Double.longBitsToDouble(tape.rawWord(index + 1));
+            case JSONTape.BIG_NUMBER:
+                return new BigDecimal(tape.string(index));
+            default:
+                throw new IllegalStateException("Value is no number: " + getType());
+        }
+    }
+
+    public boolean booleanValue()
+    {
+        char type = tape.type(index);
+        if (type != JSONTape.TRUE && type != JSONTape.FALSE)
+        {
+            throw new IllegalStateException("Value is no boolean: " + getType());
+        }
+        return type == JSONTape.TRUE;
+    }
+
+    public boolean isNull()
+    {
+        return tape.type(index) == JSONTape.NULL;
+    }
+}
@@ -0,0 +1,133 @@
+package org.svenson;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.svenson.LazyJSONSource.Span;
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.TokenType;
+
+/**
+ * JSON array list decoding its elements on first access. Created by {@link JSONParser#parseLazy(String)}.
+ * <p>
+ * The elements of the array are indexed on the first access to the list by skimming over them, recording only the
+ * range of every element in the JSON. An element is decoded when it is accessed for the first time and memoized
+ * afterwards. Nested objects and arrays are decoded into further lazy values.
+ * <p>
+ * Syntax errors within an element are only detected when the element is decoded. Instances are not thread-safe.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class LazyJSONArray
+    extends AbstractList<Object>
+{
+    private final LazyJSONSource source;
+
+    private final int start;
+
+    private final int end;
+
+    /**
+     * Elements in document order. Contains {@link Span}s for the elements not decoded yet.
+     */
+    private List<Object> elements;
+
+    LazyJSONArray(LazyJSONSource source, int start, int end)
+    {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the element list, indexing the JSON array on first use.
+     */
+    private List<Object> elements()
+    {
+        if (elements == null)
+        {
+            List<Object> elements = new ArrayList<Object>();
+            JSONTokenizer tokenizer = source.createTokenizer(start, end);
+            try
+            {
+                tokenizer.expectNextType(TokenType.BRACKET_OPEN);
+                int index = source.skipWhiteSpace(start + (int) tokenizer.getIndex(), end);
+                if (index == end || source.charAt(index) != ']')
+                {
+                    while (true)
+                    {
+                        int elementStart = start + (int) tokenizer.getIndex();
+                        tokenizer.skipValue();
+                        elements.add(new Span(elementStart, start + (int) tokenizer.getIndex()));
+
+                        if (tokenizer.expectNextType(TokenType.COMMA, TokenType.BRACKET_CLOSE) == TokenType.BRACKET_CLOSE)
+                        {
+                            break;
+                        }
+                    }
+                }
+            }
+            finally
+            {
+                tokenizer.destroy();
+            }
+            this.elements = elements;
+        }
+        return elements;
+    }
+
+    /**
+     * Returns <code>true</code> if the element at the given index is already decoded.
+     *
+     * @param index     element index
+     * @return <code>true</code> if the element is decoded
+     */
+    public boolean isDecoded(int index)
+    {
+        return !(elements().get(index) instanceof Span);
+    }
+
+    @Override
+    public Object get(int index)
+    {
+        Object value = elements().get(index);
+        if (value instanceof Span)
+        {
+            Span span = (Span) value;
+            value = source.decode(span.start, span.end);
+            elements.set(index, value);
+        }
+        return value;
+    }
+
+    @Override
+    public int size()
+    {
+        return elements().size();
+    }
+
+    @Override
+    public Object set(int index, Object element)
+    {
+        get(index);
+        return elements.set(index, element);
+    }
+
+    @Override
+    public void add(int index, Object element)
+    {
+        elements().add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public Object remove(int index)
+    {
+        Object old = get(index);
+        elements.remove(index);
+        modCount++;
+        return old;
+    }
+}
@@ -0,0 +1,176 @@
+package org.svenson;
+
+import java.util.AbstractMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.svenson.LazyJSONSource.Span;
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.TokenType;
+
+/**
+ * JSON object map decoding its member values on first access. Created by {@link JSONParser#parseLazy(String)}.
+ * <p>
+ * The members of the object are indexed on the first access to the map by scanning the keys and skimming over the
+ * values, recording only the range of every value in the JSON. A value is decoded when it is accessed for the first
+ * time and memoized afterwards. Nested objects and arrays are decoded into further lazy values, so they are only
+ * scanned when they are accessed themselves. Iterating over the entries or values decodes all member values.
+ * <p>
+ * Syntax errors within a value are only detected when the value is decoded. Instances are not thread-safe.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class LazyJSONObject
+    extends AbstractMap<String, Object>
+{
+    private final LazyJSONSource source;
+
+    private final int start;
+
+    private final int end;
+
+    /**
+     * Members in document order. Contains {@link Span}s for the values not decoded yet.
+     */
+    private Map<String, Object> members;
+
+    LazyJSONObject(LazyJSONSource source, int start, int end)
+    {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the member map, indexing the JSON object on first use.
+     */
+    private Map<String, Object> members()
+    {
+        if (members == null)
+        {
+            Map<String, Object> members = new LinkedHashMap<String, Object>();
+            JSONTokenizer tokenizer = source.createTokenizer(start, end);
+            try
+            {
+                tokenizer.expectNextType(TokenType.BRACE_OPEN);
+                TokenType type = tokenizer.expectNextType(TokenType.STRING, TokenType.BRACE_CLOSE);
+                while (type != TokenType.BRACE_CLOSE)
+                {
+                    String key = tokenizer.stringValue();
+                    tokenizer.expectNextType(TokenType.COLON);
+                    int valueStart = start + (int) tokenizer.getIndex();
+                    tokenizer.skipValue();
+                    members.put(key, new Span(valueStart, start + (int) tokenizer.getIndex()));
+
+                    type = tokenizer.expectNextType(TokenType.COMMA, TokenType.BRACE_CLOSE);
+                    if (type == TokenType.COMMA)
+                    {
+                        tokenizer.expectNextType(TokenType.STRING);
+                    }
+                }
+            }
+            finally
+            {
+                tokenizer.destroy();
+            }
+            this.members = members;
+        }
+        return members;
+    }
+
+    /**
+     * Returns the decoded value for the given member value.
+     */
+    private Object decode(String key, Object value)
+    {
+        if (value instanceof Span)
+        {
+            Span span = (Span) value;
+            value = source.decode(span.start, span.end);
+            members.put(key, value);
+        }
+        return value;
+    }
+
+    private void decodeAll()
+    {
+        for (Map.Entry<String, Object> e : members().entrySet())
+        {
+            if (e.getValue() instanceof Span)
+            {
+                Span span = (Span) e.getValue();
+                e.setValue(source.decode(span.start, span.end));
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the value of the given member is already decoded.
+     *
+     * @param key   member key
+     * @return <code>true</code> if the member exists and its value is decoded
+     */
+    public boolean isDecoded(String key)
+    {
+        Map<String, Object> members = members();
+        return members.containsKey(key) && !(members.get(key) instanceof Span);
+    }
+
+    @Override
+    public Object get(Object key)
+    {
+        Object value = members().get(key);
+        return value == null ? null : decode((String) key, value);
+    }
+
+    @Override
+    public boolean containsKey(Object key)
+    {
+        return members().containsKey(key);
+    }
+
+    @Override
+    public int size()
+    {
+        return members().size();
+    }
+
+    @Override
+    public Set<String> keySet()
+    {
+        return members().keySet();
+    }
+
+    @Override
+    public Object put(String key, Object value)
+    {
+        Object old = members().put(key, value);
+        if (old instanceof Span)
+        {
+            Span span = (Span) old;
+            old = source.decode(span.start, span.end);
+        }
+        return old;
+    }
+
+    @Override
+    public Object remove(Object key)
+    {
+        Object old = members().remove(key);
+        if (old instanceof Span)
+        {
+            Span span = (Span) old;
+            old = source.decode(span.start, span.end);
+        }
+        return old;
+    }
+
+    @Override
+    public Set<Map.Entry<String, Object>> entrySet()
+    {
+        decodeAll();
+        return members.entrySet();
+    }
+}
@@ -0,0 +1,116 @@
+package org.svenson;
+
+import org.svenson.tokenize.ByteArrayJSONSource;
+import org.svenson.tokenize.JSONCharacterSource;
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.StringJSONSource;
+
+/**
+ * JSON string or UTF-8 byte array shared by all lazy values of one document. Decodes the values at given ranges
+ * of the JSON on demand.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+final class LazyJSONSource
+{
+    private final JSONParser parser;
+
+    private final String string;
+
+    private final byte[] bytes;
+
+    LazyJSONSource(JSONParser parser, String string)
+    {
+        this.parser = parser;
+        this.string = string;
+        this.bytes = null;
+    }
+
+    LazyJSONSource(JSONParser parser, byte[] bytes)
+    {
+        this.parser = parser;
+        this.string = null;
+        this.bytes = bytes;
+    }
+
+    int length()
+    {
+        return string != null ? string.length() : bytes.length;
+    }
+
+    /**
+     * Creates a tokenizer for the given range. The tokenizer index is relative to the start of the range.
+     */
+    JSONTokenizer createTokenizer(int start, int end)
+    {
+        return parser.createTokenizer(createSource(start, end));
+    }
+
+    private JSONCharacterSource createSource(int start, int end)
+    {
+        if (string != null)
+        {
+            return new StringJSONSource(string, start, end);
+        }
+        return new ByteArrayJSONSource(bytes, start, end - start);
+    }
+
+    /**
+     * Decodes the JSON value in the given range. Objects and arrays are returned as lazy values, everything else is
+     * parsed right away.
+     */
+    Object decode(int start, int end)
+    {
+        int index = skipWhiteSpace(start, end);
+        int c = index < end ? charAt(index) : -1;
+        if (c == '{')
+        {
+            return new LazyJSONObject(this, index, end);
+        }
+        if (c == '[')
+        {
+            return new LazyJSONArray(this, index, end);
+        }
+        return parser.parse(createSource(start, end));
+    }
+
+    /**
+     * Returns the index of the first non-whitespace character in the given range or the end of the range.
+     */
+    int skipWhiteSpace(int start, int end)
+    {
+        int index = start;
+        while (index < end && isWhiteSpace(charAt(index)))
+        {
+            index++;
+        }
+        return index;
+    }
+
+    int charAt(int index)
+    {
+        return string != null ? string.charAt(index) : bytes[index];
+    }
+
+    private static boolean isWhiteSpace(int c)
+    {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    /**
+     * Placeholder for a value that is not decoded yet.
+     */
+    final static class Span
+    {
+        final int start;
+
+        final int end;
+
+        Span(int start, int end)
+        {
+            this.start = start;
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package org.svenson;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import org.svenson.tokenize.ByteArrayJSONSource;
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.TokenType;
+
+/**
+ * Parses the elements of one large JSON array in a byte array in parallel. Created by
+ * {@link JSONParser#parseArrayParallel(Class, byte[], String, ForkJoinPool)}.
+ * <p>
+ * A sequential pre-scan over the array looks at the structure only: It skips over strings, tracks the nesting of
+ * objects and arrays and records a comma between two elements about every {@link #chunkSize(int, int)} bytes. The
+ * chunks between those commas are then bound by fork/join tasks, each with its own copy of the parser and key symbol
+ * table. The copies have no path consumers. The elements of the chunks are collected in input order.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+final class ParallelArrayParser<T>
+{
+    /**
+     * Minimum number of bytes per chunk.
+     */
+    private final static int MIN_CHUNK_SIZE = 64 * 1024;
+
+    /**
+     * Number of chunks per thread of the pool to balance the different costs of the chunks.
+     */
+    private final static int CHUNKS_PER_THREAD = 4;
+
+    private final JSONParser parser;
+
+    private final Class<T> elementType;
+
+    private final byte[] json;
+
+    private final ThreadLocal<JSONParser> parsers;
+
+    private ParallelArrayParser(final JSONParser parser, Class<T> elementType, byte[] json)
+    {
+        this.parser = parser;
+        this.elementType = elementType;
+        this.json = json;
+        this.parsers = new ThreadLocal<JSONParser>()
+        {
+            @Override
+            protected JSONParser initialValue()
+            {
+                return parser.workerCopy();
+            }
+        };
+    }
+
+    /**
+     * Parses the elements of the array at the given parse path of the given JSON.
+     */
+    static <T> List<T> parse(JSONParser parser, Class<T> elementType, byte[] json, String path, ForkJoinPool pool)
+    {
+        ParallelArrayParser<T> arrayParser = new ParallelArrayParser<T>(parser, elementType, json);
+
+        int start = arrayParser.locateArray(path);
+        int[] bounds = arrayParser.split(start, chunkSize(json.length - start, pool.getParallelism()));
+
+        // the actions set distinct elements, invoke() makes them visible to this thread
+        List<List<T>> chunks = new ArrayList<List<T>>(Collections.<List<T>>nCopies(bounds.length - 1, null));
+        if (chunks.size() == 1)
+        {
+            chunks.set(0, arrayParser.parseChunk(bounds[0], bounds[1], true));
+        }
+        else
+        {
+            pool.invoke(arrayParser.new ChunkAction(bounds, chunks, 0, chunks.size()));
+        }
+
+        int size = 0;
+        for (List<T> chunk : chunks)
+        {
+            size += chunk.size();
+        }
+        List<T> elements = new ArrayList<T>(size);
+        for (List<T> chunk : chunks)
+        {
+            elements.addAll(chunk);
+        }
+        return elements;
+    }
+
+    static int chunkSize(int length, int parallelism)
+    {
+        return Math.max(MIN_CHUNK_SIZE, length / (parallelism * CHUNKS_PER_THREAD));
+    }
+
+    /**
+     * Returns the position after the opening bracket of the array at the given parse path.
+     */
+    private int locateArray(String path)
+    {
+        JSONTokenizer tokenizer = parser.createTokenizer(new ByteArrayJSONSource(json));
+        try
+        {
+            JSONParser.seekArray(tokenizer, path);
+            return (int) tokenizer.getIndex();
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Scans the array contents starting at the given position and returns the boundaries of the chunks: the start
+     * position, the positions of the commas splitting the chunks and the position of the closing bracket.
+     */
+    private int[] split(int start, int chunkSize)
+    {
+        byte[] json = this.json;
+        boolean singleQuotes = parser.isAllowSingleQuotes();
+        int[] bounds = new int[16];
+        int count = 0;
+        bounds[count++] = start;
+
+        int next = start + chunkSize;
+        int depth = 0;
+        for (int i = start; i < json.length; i++)
+        {
+            switch (json[i])
+            {
+                case '"':
+                    i = skipString(i, '"');
+                    break;
+                case '\'':
+                    if (singleQuotes)
+                    {
+                        i = skipString(i, '\'');
+                    }
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (depth-- == 0)
+                    {
+                        if (json[i] != ']')
+                        {
+                            throw new JSONParseException("Unexpected '}' at offset " + i, i);
+                        }
+                        if (count == bounds.length)
+                        {
+                            bounds = Arrays.copyOf(bounds, count + 1);
+                        }
+                        bounds[count++] = i;
+                        return Arrays.copyOf(bounds, count);
+                    }
+                    break;
+                case ',':
+                    if (depth == 0 && i >= next)
+                    {
+                        if (count == bounds.length)
+                        {
+                            bounds = Arrays.copyOf(bounds, count * 2);
+                        }
+                        bounds[count++] = i;
+                        next = i + chunkSize;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw new JSONParseException("Unexpected end of array started at offset " + (start - 1), json.length);
+    }
+
+    /**
+     * Returns the position of the closing quote of the string with the opening quote at the given position.
+     */
+    private int skipString(int quote, char quoteChar)
+    {
+        byte[] json = this.json;
+        for (int i = quote + 1; i < json.length; i++)
+        {
+            byte b = json[i];
+            if (b == quoteChar)
+            {
+                return i;
+            }
+            if (b == '\\')
+            {
+                i++;
+            }
+        }
+        throw new JSONParseException("Unclosed quotes at offset " + quote, quote);
+    }
+
+    /**
+     * Parses the comma separated elements between the given positions.
+     *
+     * @param from      start of the chunk
+     * @param to        end of the chunk (exclusive)
+     * @param first     <code>true</code> for the first chunk, which is empty for an empty array
+     */
+    private List<T> parseChunk(int from, int to, boolean first)
+    {
+        List<T> elements = new ArrayList<T>();
+        JSONTokenizer tokenizer = parsers.get().createTokenizer(new ByteArrayJSONSource(json, from, to - from));
+        try
+        {
+            TokenType type = tokenizer.nextType();
+            if (type == TokenType.END && first)
+            {
+                return elements;
+            }
+
+            while (true)
+            {
+                elements.add(parsers.get().parseArrayElement(elementType, tokenizer, type));
+                if (tokenizer.expectNextType(TokenType.COMMA, TokenType.END) == TokenType.END)
+                {
+                    return elements;
+                }
+                type = tokenizer.nextType();
+            }
+        }
+        catch (JSONParseException e)
+        {
+            long offset = from + tokenizer.getIndex();
+            throw new JSONParseException("Error parsing array element near byte offset " + offset + ": " +
+                e.getMessage(), offset, e);
+        }
+        finally
+        {
+            tokenizer.destroy();
+        }
+    }
+
+    /**
+     * Parses a range of chunks, splitting it in halves until there is only one chunk left.
+     */
+    private class ChunkAction
+        extends RecursiveAction
+    {
+        private static final long serialVersionUID = -3148729416571283562L;
+
+        private final int[] bounds;
+
+        private final List<List<T>> chunks;
+
+        private final int low;
+
+        private final int high;
+
+        private ChunkAction(int[] bounds, List<List<T>> chunks, int low, int high)
+        {
+            this.bounds = bounds;
+            this.chunks = chunks;
+            this.low = low;
+            this.high = high;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (high - low == 1)
+            {
+                // chunks after the first start behind the comma splitting them
+                int from = low == 0 ? bounds[0] : bounds[low] + 1;
+                chunks.set(low, parseChunk(from, bounds[low + 1], low == 0));
+                return;
+            }
+
+            int mid = (low + high) >>> 1;
+            ForkJoinTask.invokeAll(new ChunkAction(bounds, chunks, low, mid), new ChunkAction(bounds, chunks, mid, high));
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package org.svenson;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.svenson.tokenize.ByteArrayJSONSource;
+import org.svenson.util.ExceptionWrapper;
+
+/**
+ * Parses newline-delimited JSON documents from an input stream in parallel.
+ * <p>
+ * The calling thread reads the stream and splits it at newlines into chunks of about {@link #setChunkSize(int)} bytes.
+ * The chunks are parsed by a pool of worker threads. Every worker uses its own copy of the configured
+ * {@link JSONParser} with its own key symbol table, while the class information caches are shared. Path consumers of
+ * the configured parser are not called, the documents are only handed to the consumer given to the parse methods. The parsed
+ * documents are handed to the consumer on the calling thread, either in input order or in the order the chunks
+ * complete. At most {@link #setMaxChunksInFlight(int)} chunks are read ahead of the consumer.
+ * <p>
+ * Documents must not contain raw newlines, which is always the case for newline-delimited JSON.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class ParallelJSONDocumentParser
+    implements Closeable
+{
+    public final static int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    private final ExecutorService executor;
+
+    private final boolean ownExecutor;
+
+    private final ThreadLocal<JSONParser> parsers;
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+    private int maxChunksInFlight;
+
+    private boolean ordered = true;
+
+    /**
+     * Creates a parallel document parser with its own pool of the given number of worker threads.
+     *
+     * @param parser    configured parser to copy for every worker
+     * @param threads   number of worker threads
+     */
+    public ParallelJSONDocumentParser(JSONParser parser, int threads)
+    {
+        this(parser, Executors.newFixedThreadPool(threads, new WorkerThreadFactory()), true);
+        this.maxChunksInFlight = threads * 2;
+    }
+
+    /**
+     * Creates a parallel document parser running its workers on the given executor. The executor is not shut down by
+     * {@link #close()}.
+     *
+     * @param parser    configured parser to copy for every worker
+     * @param executor  executor to run the workers on
+     */
+    public ParallelJSONDocumentParser(JSONParser parser, ExecutorService executor)
+    {
+        this(parser, executor, false);
+        this.maxChunksInFlight = Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    private ParallelJSONDocumentParser(final JSONParser parser, ExecutorService executor, boolean ownExecutor)
+    {
+        if (parser == null)
+        {
+            throw new IllegalArgumentException("parser cannot be null");
+        }
+        if (executor == null)
+        {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        this.executor = executor;
+        this.ownExecutor = ownExecutor;
+        this.parsers = new ThreadLocal<JSONParser>()
+        {
+            @Override
+            protected JSONParser initialValue()
+            {
+                return parser.workerCopy();
+            }
+        };
+    }
+
+    /**
+     * Sets the approximate size of the chunks handed to the workers. Default is 1MB.
+     *
+     * @param chunkSize     chunk size in bytes
+     */
+    public void setChunkSize(int chunkSize)
+    {
+        if (chunkSize <= 0)
+        {
+            throw new IllegalArgumentException("chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets the maximum number of chunks being read ahead of the consumer. Default is twice the number of threads.
+     *
+     * @param maxChunksInFlight     maximum number of chunks in flight
+     */
+    public void setMaxChunksInFlight(int maxChunksInFlight)
+    {
+        if (maxChunksInFlight <= 0)
+        {
+            throw new IllegalArgumentException("maximum number of chunks in flight must be positive");
+        }
+        this.maxChunksInFlight = maxChunksInFlight;
+    }
+
+    /**
+     * Sets whether documents are delivered in input order (default) or in the order in which the chunks are parsed.
+     * Documents of one chunk are always delivered in input order.
+     *
+     * @param ordered   <code>true</code> to deliver documents in input order
+     */
+    public void setOrdered(boolean ordered)
+    {
+        this.ordered = ordered;
+    }
+
+    /**
+     * Parses all documents of the given input stream and hands them to the given consumer on the calling thread.
+     * The stream is not closed.
+     *
+     * @param <T>           The type to parse the documents into
+     * @param targetType    Runtime class for &lt;T&gt;
+     * @param json          input stream delivering UTF-8 encoded, newline-delimited JSON
+     * @param consumer      consumer for the documents
+     *
+     * @throws JSONParseException if a document is invalid. No documents of following chunks are delivered.
+     */
+    public <T> void parse(Class<T> targetType, InputStream json, Consumer<? super T> consumer)
+    {
+        if (targetType == null)
+        {
+            throw new IllegalArgumentException("target type cannot be null");
+        }
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json input stream cannot be null");
+        }
+        if (consumer == null)
+        {
+            throw new IllegalArgumentException("consumer cannot be null");
+        }
+
+        CompletionService<List<T>> completionService = new ExecutorCompletionService<List<T>>(executor);
+        ArrayDeque<Future<List<T>>> inFlight = new ArrayDeque<Future<List<T>>>();
+        try
+        {
+            byte[] buffer = new byte[chunkSize];
+            int length = 0;
+            long offset = 0;
+            boolean end = false;
+            while (!end)
+            {
+                int count = json.read(buffer, length, buffer.length - length);
+                if (count < 0)
+                {
+                    end = true;
+                }
+                else
+                {
+                    length += count;
+                    if (length < buffer.length)
+                    {
+                        continue;
+                    }
+                }
+
+                int chunkEnd = end ? length : lastNewLine(buffer, length) + 1;
+                if (!end && chunkEnd == 0)
+                {
+                    // line longer than the chunk size
+                    buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    continue;
+                }
+
+                if (chunkEnd > 0)
+                {
+                    byte[] next = new byte[Math.max(chunkSize, length - chunkEnd)];
+                    System.arraycopy(buffer, chunkEnd, next, 0, length - chunkEnd);
+
+                    while (inFlight.size() >= maxChunksInFlight)
+                    {
+                        deliver(nextChunk(inFlight, completionService), consumer);
+                    }
+                    ChunkTask<T> task = new ChunkTask<T>(targetType, buffer, chunkEnd, offset);
+                    // only unordered chunks go through the completion service, whose queue is drained by nextChunk
+                    inFlight.addLast(ordered ? executor.submit(task) : completionService.submit(task));
+
+                    offset += chunkEnd;
+                    length -= chunkEnd;
+                    buffer = next;
+                }
+            }
+
+            while (!inFlight.isEmpty())
+            {
+                deliver(nextChunk(inFlight, completionService), consumer);
+            }
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new SvensonRuntimeException(e);
+        }
+        finally
+        {
+            for (Future<List<T>> future : inFlight)
+            {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Removes the next chunk to deliver from the chunks in flight. Blocks until an arbitrary chunk is completed if the
+     * documents are delivered unordered.
+     */
+    private <T> Future<List<T>> nextChunk(ArrayDeque<Future<List<T>>> inFlight,
+                                          CompletionService<List<T>> completionService) throws InterruptedException
+    {
+        if (ordered)
+        {
+            return inFlight.removeFirst();
+        }
+        Future<List<T>> future = completionService.take();
+        inFlight.remove(future);
+        return future;
+    }
+
+    private <T> void deliver(Future<List<T>> future, Consumer<? super T> consumer) throws InterruptedException
+    {
+        List<T> documents;
+        try
+        {
+            documents = future.get();
+        }
+        catch (ExecutionException e)
+        {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+            {
+                throw (RuntimeException) cause;
+            }
+            throw new SvensonRuntimeException(cause);
+        }
+
+        for (T document : documents)
+        {
+            consumer.accept(document);
+        }
+    }
+
+    private static int lastNewLine(byte[] buffer, int length)
+    {
+        for (int i = length - 1; i >= 0; i--)
+        {
+            if (buffer[i] == '\n')
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Shuts down the worker threads if they were created by this parser.
+     */
+    public void close()
+    {
+        if (ownExecutor)
+        {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parses all documents of one chunk with the parser of the current worker thread.
+     */
+    private class ChunkTask<T>
+        implements Callable<List<T>>
+    {
+        private final Class<T> targetType;
+
+        private final byte[] chunk;
+
+        private final int length;
+
+        private final long offset;
+
+        private ChunkTask(Class<T> targetType, byte[] chunk, int length, long offset)
+        {
+            this.targetType = targetType;
+            this.chunk = chunk;
+            this.length = length;
+            this.offset = offset;
+        }
+
+        public List<T> call()
+        {
+            List<T> documents = new ArrayList<T>();
+            JSONDocumentIterator<T> iterator = parsers.get().parseDocuments(targetType,
+                new ByteArrayJSONSource(chunk, 0, length));
+            try
+            {
+                while (iterator.hasNext())
+                {
+                    documents.add(iterator.next());
+                }
+            }
+            catch (JSONParseException e)
+            {
+                long documentOffset = offset + iterator.getIndex();
+                throw new JSONParseException("Error parsing document near byte offset " + documentOffset + ": " +
+                    e.getMessage(), documentOffset, e);
+            }
+            finally
+            {
+                iterator.close();
+            }
+            return documents;
+        }
+    }
+
+    private static class WorkerThreadFactory
+        implements ThreadFactory
+    {
+        private final static AtomicInteger count = new AtomicInteger();
+
+        public Thread newThread(Runnable r)
+        {
+            Thread thread = new Thread(r, "svenson-document-parser-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.svenson.tokenize;
+
+/**
+ * Abstract base class for {@link JSONByteSource} implementations. Implements the character-by-character
+ * {@link #nextChar()} contract by decoding UTF-8 on top of {@link #read(byte[], int, int)}. The tokenizer
+ * itself never calls {@link #nextChar()} on byte sources.
+ * <p>
+ * {@link #nextChar()} reads ahead in blocks of up to {@link #CHAR_BUFFER_SIZE} bytes, so that other callers don't pay
+ * a read call per byte. The {@link #getIndex()} of the implementations is a byte index and does not count the
+ * bytes read ahead, see {@link #getUnreadCount()}. A source must be read either by {@link #nextChar()} or by
+ * {@link #read(byte[], int, int)}, not both.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public abstract class AbstractJSONByteSource
+    implements JSONByteSource
+{
+    /**
+     * Maximum number of bytes read ahead by {@link #nextChar()}.
+     */
+    public final static int CHAR_BUFFER_SIZE = 8192;
+
+    private byte[] charBuffer;
+
+    private int charPosition;
+
+    private int charLimit;
+
+    private char pendingLowSurrogate;
+
+    public int nextChar()
+    {
+        if (pendingLowSurrogate != 0)
+        {
+            char c = pendingLowSurrogate;
+            pendingLowSurrogate = 0;
+            return c;
+        }
+
+        int lead = nextByte();
+        if (lead < 0x80)
+        {
+            return lead;
+        }
+
+        int codePoint;
+        int remaining;
+        if ((lead & 0xE0) == 0xC0)
+        {
+            codePoint = lead & 0x1F;
+            remaining = 1;
+        }
+        else if ((lead & 0xF0) == 0xE0)
+        {
+            codePoint = lead & 0x0F;
+            remaining = 2;
+        }
+        else if ((lead & 0xF8) == 0xF0)
+        {
+            codePoint = lead & 0x07;
+            remaining = 3;
+        }
+        else
+        {
+            return '\uFFFD';
+        }
+
+        while (remaining-- > 0)
+        {
+            int b = nextByte();
+            if ((b & 0xC0) != 0x80)
+            {
+                return '\uFFFD';
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+
+        if (codePoint > Character.MAX_CODE_POINT)
+        {
+            return '\uFFFD';
+        }
+
+        if (Character.isSupplementaryCodePoint(codePoint))
+        {
+            pendingLowSurrogate = Character.lowSurrogate(codePoint);
+            return Character.highSurrogate(codePoint);
+        }
+        return codePoint;
+    }
+
+    private int nextByte()
+    {
+        if (charPosition == charLimit)
+        {
+            if (charBuffer == null)
+            {
+                charBuffer = new byte[CHAR_BUFFER_SIZE];
+            }
+
+            int count;
+            do
+            {
+                count = read(charBuffer, 0, charBuffer.length);
+            } while (count == 0);
+
+            if (count < 0)
+            {
+                return -1;
+            }
+            charPosition = 0;
+            charLimit = count;
+        }
+        return charBuffer[charPosition++] & 0xFF;
+    }
+
+    /**
+     * Returns the number of bytes read ahead by {@link #nextChar()} that were not decoded yet. Implementations
+     * subtract it from the number of bytes read to get the index.
+     *
+     * @return number of bytes read but not delivered
+     */
+    protected final int getUnreadCount()
+    {
+        return charLimit - charPosition;
+    }
+}
@@ -0,0 +1,95 @@
+package org.svenson.tokenize;
+
+/**
+ * {@link JSONByteSource} implementation for UTF-8 encoded JSON in a byte array. The {@link JSONTokenizer}
+ * scans the given array in place without copying it.
+ *
+ * @author fforw at gmx dot de
+ */
+public class ByteArrayJSONSource
+    extends AbstractJSONByteSource
+{
+    private final byte[] bytes;
+
+    private final int offset;
+
+    private final int end;
+
+    private int index;
+
+    public ByteArrayJSONSource(byte[] bytes)
+    {
+        this(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Creates a source for the given range of the given byte array.
+     *
+     * @param bytes     byte array containing UTF-8 encoded JSON
+     * @param offset    offset of the first byte
+     * @param length    number of bytes
+     */
+    public ByteArrayJSONSource(byte[] bytes, int offset, int length)
+    {
+        if (bytes == null)
+        {
+            throw new IllegalArgumentException("bytes cannot be null");
+        }
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+        {
+            throw new IllegalArgumentException("Invalid range " + offset + " / " + length + " for " + bytes.length + " bytes");
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.end = offset + length;
+    }
+
+    public int read(byte[] buffer, int off, int length)
+    {
+        int pos = offset + index;
+        int remaining = end - pos;
+        if (remaining <= 0)
+        {
+            return -1;
+        }
+
+        int count = Math.min(remaining, length);
+        System.arraycopy(bytes, pos, buffer, off, count);
+        index += count;
+        return count;
+    }
+
+    public int getIndex()
+    {
+        return index - getUnreadCount();
+    }
+
+    public void destroy()
+    {
+        // nothing to do
+    }
+
+    /**
+     * Returns the byte array of this source.
+     */
+    byte[] getBytes()
+    {
+        return bytes;
+    }
+
+    /**
+     * Returns the offset of the first byte of this source.
+     */
+    int getOffset()
+    {
+        return offset;
+    }
+
+    /**
+     * Returns the offset behind the last byte of this source.
+     */
+    int getEnd()
+    {
+        return end;
+    }
+}
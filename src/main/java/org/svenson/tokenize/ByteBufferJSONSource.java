@@ -0,0 +1,50 @@
+package org.svenson.tokenize;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link JSONByteSource} implementation for UTF-8 encoded JSON between the position and the limit
+ * of a {@link ByteBuffer}. The position of the given buffer is not modified.
+ *
+ * @author fforw at gmx dot de
+ */
+public class ByteBufferJSONSource
+    extends AbstractJSONByteSource
+{
+    private final ByteBuffer buffer;
+
+    private int index;
+
+    public ByteBufferJSONSource(ByteBuffer buffer)
+    {
+        if (buffer == null)
+        {
+            throw new IllegalArgumentException("buffer cannot be null");
+        }
+        this.buffer = buffer.duplicate();
+    }
+
+    public int read(byte[] dest, int offset, int length)
+    {
+        int remaining = buffer.remaining();
+        if (remaining == 0)
+        {
+            return -1;
+        }
+
+        int count = Math.min(remaining, length);
+        buffer.get(dest, offset, count);
+        index += count;
+        return count;
+    }
+
+    public int getIndex()
+    {
+        return index - getUnreadCount();
+    }
+
+    public void destroy()
+    {
+        // nothing to do
+    }
+}
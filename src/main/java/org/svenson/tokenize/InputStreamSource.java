@@ -1,20 +1,23 @@
 package org.svenson.tokenize;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.io.UnsupportedEncodingException;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.svenson.util.ExceptionWrapper;
 
+/**
+ * {@link JSONByteSource} implementation reading UTF-8 encoded JSON from an input stream. The bytes are
+ * tokenized directly without being decoded by a {@link java.io.Reader} first.
+ * <p>
+ * {@link #getIndex()} is a byte index. It used to be a character index when the stream was read through a reader,
+ * so it differs from earlier versions for non-ASCII input.
+ *
+ * @author fforw at gmx dot de
+ */
 public class InputStreamSource
-    implements JSONCharacterSource
+    extends AbstractJSONByteSource
 {
-    private Reader reader;
+    private InputStream inputStream;
 
     private int index;
 
@@ -28,29 +31,34 @@ public class InputStreamSource
      */
     public InputStreamSource(InputStream inputStream, boolean close)
     {
-        try
-        {
-            this.reader = new BufferedReader( new InputStreamReader(inputStream, "UTF-8"));
-        }
-        catch (UnsupportedEncodingException e)
+        if (inputStream == null)
         {
-            throw ExceptionWrapper.wrap(e);
+            throw new IllegalArgumentException("input stream cannot be null");
         }
+        this.inputStream = inputStream;
         this.close = close;
     }
 
+    /**
+     * Returns the number of bytes delivered so far.
+     *
+     * @return byte index
+     */
     public int getIndex()
     {
-        return index;
+        return index - getUnreadCount();
     }
 
-    public int nextChar()
+    public int read(byte[] buffer, int offset, int length)
     {
         try
         {
-            int result = reader.read();
-            index++;
-            return result;
+            int count = inputStream.read(buffer, offset, length);
+            if (count > 0)
+            {
+                index += count;
+            }
+            return count;
         }
         catch (IOException e)
         {
@@ -64,7 +72,7 @@ public class InputStreamSource
         {
             try
             {
-                reader.close();
+                inputStream.close();
             }
             catch (IOException e)
             {
@@ -0,0 +1,28 @@
+package org.svenson.tokenize;
+
+/**
+ * Byte-oriented extension of {@link JSONCharacterSource} for UTF-8 encoded JSON. The {@link JSONTokenizer}
+ * tokenizes the bytes directly: structural characters, numbers and ASCII string content never pass through
+ * a character decoder, only non-ASCII string content gets decoded.
+ * <p>
+ * The index of byte sources is a byte index.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public interface JSONByteSource
+    extends JSONCharacterSource
+{
+    /**
+     * Reads up to <code>length</code> bytes into the given buffer, starting at <code>offset</code>.
+     * Implementations should return as soon as some bytes are available instead of waiting for the
+     * window to be completely filled.
+     *
+     * @param buffer    byte buffer to fill
+     * @param offset    offset of the first byte to write
+     * @param length    maximum number of bytes to read
+     *
+     * @return number of bytes read or -1 if the end of the byte stream was reached.
+     */
+    int read(byte[] buffer, int offset, int length);
+}
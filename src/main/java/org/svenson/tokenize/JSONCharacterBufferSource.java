@@ -0,0 +1,29 @@
+package org.svenson.tokenize;
+
+/**
+ * Buffer-oriented extension of {@link JSONCharacterSource}. Instead of handing out characters one at a time,
+ * implementations fill a character window owned by the {@link JSONTokenizer} which then scans that window
+ * in tight loops without calling back into the source for every character.
+ * <p>
+ * Plain {@link JSONCharacterSource} implementations are wrapped in a {@link JSONCharacterSourceAdapter} by the
+ * tokenizer.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public interface JSONCharacterBufferSource
+    extends JSONCharacterSource
+{
+    /**
+     * Reads up to <code>length</code> characters into the given buffer, starting at <code>offset</code>.
+     * Implementations should return as soon as some characters are available instead of waiting for the
+     * window to be completely filled.
+     *
+     * @param buffer    character buffer to fill
+     * @param offset    offset of the first character to write
+     * @param length    maximum number of characters to read
+     *
+     * @return number of characters read or -1 if the end of the character stream was reached.
+     */
+    int read(char[] buffer, int offset, int length);
+}
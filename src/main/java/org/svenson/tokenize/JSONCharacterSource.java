@@ -22,6 +22,9 @@ public interface JSONCharacterSource
      * Returns the current character index.
      * 
      * @return  current character index
+     * @throws IllegalStateException if the source delivered more than {@link Integer#MAX_VALUE} characters. Such
+     *                               sources offer a <code>long</code> offset instead, like
+     *                               {@link MappedFileSource#getOffset()}.
      */
     int getIndex();
     
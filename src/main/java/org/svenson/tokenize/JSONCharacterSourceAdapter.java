@@ -0,0 +1,75 @@
+package org.svenson.tokenize;
+
+/**
+ * Adapts a character-by-character {@link JSONCharacterSource} to the {@link JSONCharacterBufferSource} contract.
+ * <p>
+ * Note that the adapter reads ahead of the tokenizer up to the size of the tokenizer's character window, so
+ * the wrapped source must be able to deliver its characters without waiting for external input that only
+ * arrives after the JSON value is complete.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class JSONCharacterSourceAdapter
+    implements JSONCharacterBufferSource
+{
+    private final JSONCharacterSource source;
+
+    private boolean reachedEnd;
+
+    public JSONCharacterSourceAdapter(JSONCharacterSource source)
+    {
+        if (source == null)
+        {
+            throw new IllegalArgumentException("character source cannot be null.");
+        }
+        this.source = source;
+    }
+
+    public int read(char[] buffer, int offset, int length)
+    {
+        if (reachedEnd)
+        {
+            return -1;
+        }
+
+        int count = 0;
+        while (count < length)
+        {
+            int c = source.nextChar();
+            if (c < 0)
+            {
+                reachedEnd = true;
+                break;
+            }
+            buffer[offset + count++] = (char)c;
+        }
+
+        return count == 0 && reachedEnd ? -1 : count;
+    }
+
+    public int nextChar()
+    {
+        if (reachedEnd)
+        {
+            return -1;
+        }
+
+        int c = source.nextChar();
+        if (c < 0)
+        {
+            reachedEnd = true;
+        }
+        return c;
+    }
+
+    public int getIndex()
+    {
+        return source.getIndex();
+    }
+
+    public void destroy()
+    {
+        source.destroy();
+    }
+}
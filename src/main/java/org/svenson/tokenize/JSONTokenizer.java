@@ -1,8 +1,10 @@
 package org.svenson.tokenize;
 
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.List;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,25 +21,225 @@ import org.svenson.JSONParseException;
 public class JSONTokenizer
 {
     private static Logger log = LoggerFactory.getLogger(JSONTokenizer.class);
-    
+
+    /**
+     * Default size of the character window.
+     */
+    private final static int BUFFER_SIZE = 8192;
+
+    /**
+     * Minimum size of the character window.
+     */
+    private final static int MIN_BUFFER_SIZE = 16;
+
+    private final static TextScanner SCANNER = TextScanner.INSTANCE;
+
+    /**
+     * Largest integer value up to which all integers can be exactly represented as double.
+     */
+    private final static long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+
+    /**
+     * Largest power of ten that can be exactly represented as double.
+     */
+    private final static int MAX_EXACT_POWER_OF_TEN = 22;
+
+    private final static double[] POWERS_OF_TEN = new double[MAX_EXACT_POWER_OF_TEN + 1];
+    static
+    {
+        double power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++)
+        {
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+
     private JSONCharacterSource source;
 
-    private boolean isDecimal;
+    /**
+     * Source filling the character window or <code>null</code> if the tokenizer works on UTF-8 bytes.
+     */
+    private JSONCharacterBufferSource charSource;
 
-    private char pushedBack;
-    
-    private List<Token> recordedTokens = new ArrayList<Token>();
+    /**
+     * Source filling the byte window or <code>null</code> if the tokenizer works on characters.
+     */
+    private JSONByteSource byteSource;
+
+    /**
+     * Character window filled from the character source.
+     */
+    private char[] chars;
+
+    /**
+     * Byte window filled from the byte source.
+     */
+    private byte[] bytes;
+
+    /**
+     * Position of the next character or byte to read within the window.
+     */
+    private int position;
+
+    /**
+     * End of the valid characters or bytes within the window.
+     */
+    private int limit;
+
+    /**
+     * Index of the first character or byte in the window.
+     */
+    private long bufferOffset;
+
+    /**
+     * Reusable buffer for the characters of the current number. Only used to construct
+     * numbers exceeding the long-based fast path.
+     */
+    private char[] numberChars = new char[32];
+
+    /**
+     * Ring buffer of recorded tokens. The live tokens are at the absolute indexes from {@link #recordedHead}
+     * (inclusive) to {@link #recordedTail} (exclusive), masked with the buffer length.
+     */
+    private Token[] recordedTokens = new Token[16];
+
+    private int recordedHead;
+
+    private int recordedTail;
     
     private boolean allowSingleQuotes = false;
 
+    private NumberMode numberMode = NumberMode.BIG_DECIMAL;
+
+    /**
+     * Symbol table for object keys and short values. Created on first use if key canonicalization is enabled.
+     */
+    private SymbolTable symbolTable;
+
+    private boolean canonicalizeKeys = true;
+
+    private boolean canonicalizeValues;
+
+    private boolean validating;
+
+    /**
+     * Structural index of the byte array scanned in place or <code>null</code>.
+     */
+    private StructuralIndex structuralIndex;
+
+    /**
+     * Number of the first structural character at or after the last looked up position.
+     */
+    private int structuralCursor;
+
+    /**
+     * String values up to this length are canonicalized if {@link #canonicalizeValues} is set.
+     */
+    private final static int MAX_CANONICAL_VALUE_LENGTH = 16;
+
+    private final static int NUMBER_LONG = 0;
+    private final static int NUMBER_DOUBLE = 1;
+    private final static int NUMBER_SCALED = 2;
+    private final static int NUMBER_OBJECT = 3;
+
+    /**
+     * Type of the current token.
+     */
+    private TokenType currentType;
+
+    /**
+     * Value of the current STRING token.
+     */
+    private String currentString;
+
+    /**
+     * Defines which of the current number fields holds the value of the current INTEGER or DECIMAL token.
+     */
+    private int numberKind;
+
+    /**
+     * Value of the current number for NUMBER_LONG or its unscaled value for NUMBER_SCALED.
+     */
+    private long currentLong;
+
+    /**
+     * Scale of the current number for NUMBER_SCALED.
+     */
+    private int currentScale;
+
+    /**
+     * Value of the current number for NUMBER_DOUBLE.
+     */
+    private double currentDouble;
+
+    /**
+     * Value of the current number for NUMBER_OBJECT.
+     */
+    private Number currentNumber;
+
     private boolean recording;
 
     private boolean tokenPushedBack;
 
     private boolean reachedEndOfJSON;
 
+    /**
+     * Absolute index of the next recorded token to replay while recording.
+     */
     private int pushBackIndex;
 
+    /**
+     * Window position marked by {@link #mark()} or -1.
+     */
+    private int markPosition = -1;
+
+    /**
+     * <code>true</code> if the input is pushed into the window by {@link #append(ByteBuffer)} instead of being
+     * read from a source.
+     */
+    private boolean nonBlocking;
+
+    /**
+     * <code>true</code> if no more input will be appended.
+     */
+    private boolean endOfInput;
+
+    /**
+     * Index of the first character of the token scanned last.
+     */
+    private long tokenIndex;
+
+    /**
+     * Window position of the token currently scanned by a non-blocking tokenizer or -1.
+     */
+    private int tokenStart = -1;
+
+    /**
+     * Number of characters from the current position on that a non-blocking tokenizer already checked for the end of
+     * an incomplete string or number token, 0 if there is no incomplete token.
+     */
+    private int pendingScanned;
+
+    /**
+     * <code>true</code> if the last checked character of an incomplete string is a backslash escaping the next one.
+     */
+    private boolean pendingEscape;
+
+    private TokenType markedType;
+
+    private String markedString;
+
+    private int markedNumberKind;
+
+    private long markedLong;
+
+    private int markedScale;
+
+    private double markedDouble;
+
+    private Number markedNumber;
+
     /**
      * Constructs a new tokenizer instance for the given JSON string. If allowSingleQuotes
      * is <code>true</code>, the parser will also allow the JSON to contain quoted string that are
@@ -53,15 +255,17 @@ public class JSONTokenizer
             throw new IllegalArgumentException("json string cannot be null.");
         }
 
-        this.source = new StringJSONSource(json);
-        //this.source = new InputStreamSource( new ByteArrayInputStream(json.getBytes()), json.length() );
+        this.source = this.charSource = new StringJSONSource(json);
+        this.chars = new char[Math.max(MIN_BUFFER_SIZE, Math.min(json.length(), BUFFER_SIZE))];
         this.allowSingleQuotes = allowSingleQuotes;
     }
 
     /**
-     * Constructs a new tokenizer instance for the given InputStream and length. If allowSingleQuotes
+     * Constructs a new tokenizer instance for the given character source. If allowSingleQuotes
      * is <code>true</code>, the parser will also allow the JSON to contain quoted string that are
      * quoted with single quotes.
+     * <p>
+     * {@link JSONByteSource}s are tokenized as UTF-8 bytes, all other sources as characters.
      *
      * @param source                character source to use
      * @param allowSingleQuotes     if <code>true</code>, single quotes ('\'') is allowed as quoting character, too
@@ -72,13 +276,62 @@ public class JSONTokenizer
         {
             throw new IllegalArgumentException("character source cannot be null.");
         }
+
         this.source = source;
+        if (source instanceof ByteArrayJSONSource)
+        {
+            // scan the byte array in place
+            ByteArrayJSONSource byteArraySource = (ByteArrayJSONSource) source;
+            this.byteSource = byteArraySource;
+            this.bytes = byteArraySource.getBytes();
+            this.position = byteArraySource.getOffset();
+            this.limit = byteArraySource.getEnd();
+            this.bufferOffset = -position;
+            this.reachedEndOfJSON = true;
+        }
+        else if (source instanceof JSONByteSource)
+        {
+            this.byteSource = (JSONByteSource) source;
+            this.bytes = new byte[BUFFER_SIZE];
+        }
+        else
+        {
+            if (source instanceof JSONCharacterBufferSource)
+            {
+                this.charSource = (JSONCharacterBufferSource) source;
+            }
+            else
+            {
+                this.charSource = new JSONCharacterSourceAdapter(source);
+            }
+            int size = BUFFER_SIZE;
+            if (source instanceof StringJSONSource)
+            {
+                size = Math.max(MIN_BUFFER_SIZE, Math.min(((StringJSONSource) source).length(), BUFFER_SIZE));
+            }
+            this.chars = new char[size];
+        }
         this.allowSingleQuotes = allowSingleQuotes;
     }
     
+    /**
+     * Constructs a new tokenizer whose UTF-8 input is pushed into the window by {@link #append(ByteBuffer)}.
+     *
+     * @param allowSingleQuotes     if <code>true</code>, single quotes ('\'') is allowed as quoting character, too
+     */
+    JSONTokenizer(boolean allowSingleQuotes)
+    {
+        this.nonBlocking = true;
+        this.bytes = new byte[BUFFER_SIZE];
+        this.allowSingleQuotes = allowSingleQuotes;
+    }
+
     public void destroy()
     {
-        source.destroy();
+        if (source != null)
+        {
+            source.destroy();
+        }
     }
 
     public boolean isAllowSingleQuotes()
@@ -86,10 +339,148 @@ public class JSONTokenizer
         return allowSingleQuotes;
     }
 
+    /**
+     * Sets the symbol table used to canonicalize object keys and short values. Sharing a symbol table between
+     * tokenizers lets them return identical String instances for identical keys.
+     *
+     * @param symbolTable   symbol table or <code>null</code> to use a tokenizer-private one.
+     */
+    public void setSymbolTable(SymbolTable symbolTable)
+    {
+        this.symbolTable = symbolTable;
+    }
+
+    /**
+     * Enables or disables returning canonical String instances for object keys without escapes. Default
+     * is <code>true</code>.
+     *
+     * @param canonicalizeKeys  <code>true</code> to canonicalize keys
+     */
+    public void setCanonicalizeKeys(boolean canonicalizeKeys)
+    {
+        this.canonicalizeKeys = canonicalizeKeys;
+    }
+
+    public boolean isCanonicalizeKeys()
+    {
+        return canonicalizeKeys;
+    }
+
+    /**
+     * Enables or disables returning canonical String instances for string values of up to 16 characters
+     * without escapes. Useful for documents repeating enum-like values. Default is <code>false</code>.
+     *
+     * @param canonicalizeValues    <code>true</code> to canonicalize short values
+     */
+    public void setCanonicalizeValues(boolean canonicalizeValues)
+    {
+        this.canonicalizeValues = canonicalizeValues;
+    }
+
+    public boolean isCanonicalizeValues()
+    {
+        return canonicalizeValues;
+    }
+
+    /**
+     * Enables validating mode. String tokens are checked for valid escapes and control characters but their value
+     * is not created, so {@link #stringValue()} returns an empty string for all of them. Default is
+     * <code>false</code>.
+     *
+     * @param validating    <code>true</code> to check strings without creating their value
+     */
+    public void setValidating(boolean validating)
+    {
+        this.validating = validating;
+    }
+
+    public boolean isValidating()
+    {
+        return validating;
+    }
+
+    /**
+     * Enables the use of a {@link StructuralIndex} for byte arrays scanned in place. The index is built over the whole
+     * array right away. Afterwards the ends of strings are looked up in the index, and skipped objects and arrays are
+     * skimmed from structural character to structural character instead of character by character. Has no effect
+     * for other sources or if single quotes are allowed. Default is <code>false</code>.
+     *
+     * @param structuralIndexing    <code>true</code> to use a structural index
+     */
+    public void setStructuralIndexing(boolean structuralIndexing)
+    {
+        if (!structuralIndexing)
+        {
+            structuralIndex = null;
+        }
+        else if (structuralIndex == null && !allowSingleQuotes && byteSource instanceof ByteArrayJSONSource)
+        {
+            ByteArrayJSONSource source = (ByteArrayJSONSource) byteSource;
+            structuralIndex = StructuralIndex.build(bytes, source.getOffset(), source.getEnd() - source.getOffset());
+            structuralCursor = 0;
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if this tokenizer uses a structural index.
+     *
+     * @return <code>true</code> if a structural index is used
+     */
+    public boolean isStructuralIndexing()
+    {
+        return structuralIndex != null;
+    }
+
+    /**
+     * Returns the position of the first structural character at or after the given position in the byte array.
+     *
+     * @param from  position in the byte array
+     * @return position of the structural character or -1 if there is none.
+     */
+    private int nextStructural(int from)
+    {
+        StructuralIndex index = structuralIndex;
+        int cursor = structuralCursor;
+        if (cursor > 0 && index.get(cursor - 1) >= from)
+        {
+            // moved backwards by a reset or push back
+            cursor = index.find(from);
+        }
+        else
+        {
+            int size = index.size();
+            while (cursor < size && index.get(cursor) < from)
+            {
+                cursor++;
+            }
+        }
+        structuralCursor = cursor;
+        return cursor < index.size() ? index.get(cursor) : -1;
+    }
+
+    public NumberMode getNumberMode()
+    {
+        return numberMode;
+    }
+
+    /**
+     * Sets the java types used for number token values. Default is {@link NumberMode#BIG_DECIMAL}.
+     *
+     * @param numberMode    number mode
+     */
+    public void setNumberMode(NumberMode numberMode)
+    {
+        if (numberMode == null)
+        {
+            throw new IllegalArgumentException("number mode cannot be null.");
+        }
+        this.numberMode = numberMode;
+    }
+
     /**
      * Returns <code>true</code> if the given character is a number character.
      */
-    private boolean isNumberCharacter(char c )
+    private static boolean isNumberCharacter(int c)
     {
         switch(c)
         {
@@ -98,8 +489,6 @@ public class JSONTokenizer
             case '+':
             case 'E':
             case 'e':
-                isDecimal = true;
-                return true;
             case '0':
             case '1':
             case '2':
@@ -130,7 +519,7 @@ public class JSONTokenizer
         {
             if (nextChar() != suffix.charAt(i))
             {
-                throw new JSONParseException("invalid keyword at index "+source.getIndex()+" (should be '" + word + "')");
+                throw new JSONParseException("invalid keyword at index "+getIndex()+" (should be '" + word + "')");
             }
         }
     }
@@ -147,373 +536,1706 @@ public class JSONTokenizer
         {
             Token token;
             
+            Token[] recordedTokens = this.recordedTokens;
+            int mask = recordedTokens.length - 1;
             if (recording)
             {
-                token = recordedTokens.get(pushBackIndex++);
+                token = recordedTokens[pushBackIndex++ & mask];
                 
-                if (recordedTokens.size() == pushBackIndex)
+                if (recordedTail == pushBackIndex)
                 {
                     tokenPushedBack = false;
                 }
             }
             else
             {
-                token = recordedTokens.remove(0);
-                if (recordedTokens.size() == 0)
+                int index = recordedHead++ & mask;
+                token = recordedTokens[index];
+                recordedTokens[index] = null;
+                pushBackIndex = recordedHead;
+                if (recordedTail == recordedHead)
                 {
                     tokenPushedBack = false;
                 }
             }
 
+            setCurrent(token);
+
             log.trace("token = {}", token);
 
             return token;
         }
 
-        skipWhiteSpace();
+        Token token = Token.getToken(scan(), value());
 
-        if (reachedEndOfJSON && pushedBack == 0)
+        if (recording && token.type() != TokenType.NEED_MORE_INPUT)
         {
-            return Token.getToken(TokenType.END);
+            record(token);
         }
+        
+        log.trace("token = {}", token);
 
-        isDecimal = false;
-
-        Token token ;
+        return token;
+    }
 
-        int c1 = nextChar();
-        switch((char)c1)
+    /**
+     * Reads the next token from the window and stores its type and value as current token.
+     *
+     * @return type of the next token
+     */
+    private TokenType scan()
+    {
+        if (nonBlocking)
         {
-            case '"':
+            if (pendingScanned > 0 && !endOfInput && !isPendingTokenComplete())
             {
-                token = parseString((char)c1);
-                break;
+                return currentType = TokenType.NEED_MORE_INPUT;
             }
-            case '[':
-                token = Token.getToken(TokenType.BRACKET_OPEN, "[");
-                break;
-            case ']':
-                token = Token.getToken(TokenType.BRACKET_CLOSE, "]");
-                break;
-            case '{':
-                token = Token.getToken(TokenType.BRACE_OPEN, "{");
-                break;
-            case '}':
-                token = Token.getToken(TokenType.BRACE_CLOSE, "}");
-                break;
-            case ':':
-                token = Token.getToken(TokenType.COLON, ":");
-                break;
-            case ',':
-                token = Token.getToken(TokenType.COMMA, ",");
-                break;
-            case 't':
-                ensureKeywordSuffix("true");
-                token = Token.getToken(TokenType.TRUE, Boolean.TRUE);
-                break;
-            case 'f':
-                ensureKeywordSuffix("false");
-                token = Token.getToken(TokenType.FALSE, Boolean.FALSE);
-                break;
-            case 'n':
-                ensureKeywordSuffix("null");
-                token = Token.getToken(TokenType.NULL);
-                break;
-            default:
+            pendingScanned = 0;
+
+            try
             {
-                if ( isNumberCharacter((char)c1))
+                return scanToken();
+            }
+            catch(NeedMoreInputException e)
+            {
+                if (tokenStart >= 0)
                 {
-                    token = parseNumber((char)c1);
-                    break;
+                    // restart the token once its end was appended, white-space before it stays consumed
+                    position = tokenStart;
+                    pendingScanned = 1;
+                    pendingEscape = false;
                 }
-
+                return currentType = TokenType.NEED_MORE_INPUT;
+            }
+            finally
+            {
+                tokenStart = -1;
+            }
+        }
+        return scanToken();
+    }
+
+    /**
+     * Checks the appended input of the incomplete token at the current position of a non-blocking tokenizer for the
+     * end of the token. Only the characters appended since the last check are looked at, so a long string or number
+     * fed in many small chunks is scanned in linear time.
+     *
+     * @return <code>true</code> if the token can be scanned now
+     */
+    private boolean isPendingTokenComplete()
+    {
+        byte[] bytes = this.bytes;
+        int first = bytes[position] & 0xFF;
+        int i = position + pendingScanned;
+        if (first == '"' || first == '\'')
+        {
+            boolean escape = pendingEscape;
+            for (; i < limit; i++)
+            {
+                int c = bytes[i] & 0xFF;
+                if (escape)
+                {
+                    escape = false;
+                }
+                else if (c == '\\')
+                {
+                    escape = true;
+                }
+                else if (c == first)
+                {
+                    return true;
+                }
+            }
+            pendingEscape = escape;
+        }
+        else if (isNumberCharacter(first))
+        {
+            for (; i < limit; i++)
+            {
+                if (!isNumberCharacter(bytes[i] & 0xFF))
+                {
+                    return true;
+                }
+            }
+        }
+        else
+        {
+            // keywords are short enough to be rescanned
+            return true;
+        }
+        pendingScanned = limit - position;
+        return false;
+    }
+
+    private TokenType scanToken()
+    {
+        int c1 = skipWhiteSpace();
+        if (c1 < 0)
+        {
+            tokenIndex = bufferOffset + position;
+            return currentType = TokenType.END;
+        }
+        tokenIndex = bufferOffset + position - 1;
+        if (nonBlocking)
+        {
+            tokenStart = position - 1;
+        }
+
+        TokenType type;
+        switch((char)c1)
+        {
+            case '"':
+            {
+                currentString = parseString((char)c1);
+                type = TokenType.STRING;
+                break;
+            }
+            case '[':
+                type = TokenType.BRACKET_OPEN;
+                break;
+            case ']':
+                type = TokenType.BRACKET_CLOSE;
+                break;
+            case '{':
+                type = TokenType.BRACE_OPEN;
+                break;
+            case '}':
+                type = TokenType.BRACE_CLOSE;
+                break;
+            case ':':
+                type = TokenType.COLON;
+                break;
+            case ',':
+                type = TokenType.COMMA;
+                break;
+            case 't':
+                ensureKeywordSuffix("true");
+                type = TokenType.TRUE;
+                break;
+            case 'f':
+                ensureKeywordSuffix("false");
+                type = TokenType.FALSE;
+                break;
+            case 'n':
+                ensureKeywordSuffix("null");
+                type = TokenType.NULL;
+                break;
+            default:
+            {
+                if ( isNumberCharacter(c1))
+                {
+                    type = parseNumber(c1);
+                    break;
+                }
+
                 if (c1 == '\'' && allowSingleQuotes)
                 {
-                    token = parseString((char)c1);
+                    currentString = parseString((char)c1);
+                    type = TokenType.STRING;
                     break;
                 }
 
-                throw new JSONParseException("Unexpected character '" + (char)c1 + "'");
+                throw new JSONParseException("Unexpected character '" + (char)c1 + "'");
+            }
+        }
+        return currentType = type;
+    }
+
+    /**
+     * Advances to the next token without creating a {@link Token} for it. The type of the token is returned, its
+     * value is available from the typed accessors like {@link #stringValue()}, {@link #longValue()} or
+     * {@link #doubleValue()} until the next token is read.
+     * <p>
+     * Mixing this method with {@link #next()} is allowed. While the tokenizer is recording or replaying pushed
+     * back tokens, tokens are created as usual.
+     *
+     * @return type of the next token
+     */
+    public TokenType nextType()
+    {
+        if (tokenPushedBack || recording)
+        {
+            return next().type();
+        }
+        return scan();
+    }
+
+    /**
+     * Advances to the next token and expects it to be one of the given types.
+     *
+     * @param types     vararg list of possible types
+     * @return type of the next token
+     *
+     * @throws JSONParseException if the expectation is not fulfilled
+     * @see #nextType()
+     */
+    public TokenType expectNextType(TokenType... types)
+    {
+        TokenType type = nextType();
+        for (TokenType t : types)
+        {
+            if (type == t)
+            {
+                return type;
+            }
+        }
+        throw new JSONParseException("Token "+currentToken()+" is not of one of the expected types "+Arrays.asList(types));
+    }
+
+    /**
+     * Returns the type of the current token, that is the token last returned by {@link #next()} or {@link #nextType()}.
+     *
+     * @return type of the current token or <code>null</code> if no token was read yet.
+     */
+    public TokenType currentType()
+    {
+        return currentType;
+    }
+
+    /**
+     * Returns a {@link Token} for the current token.
+     *
+     * @return current token
+     */
+    public Token currentToken()
+    {
+        return Token.getToken(currentType, value());
+    }
+
+    /**
+     * Returns the value of the current token as it would be returned by {@link Token#value()}.
+     *
+     * @return value of the current token
+     */
+    public Object value()
+    {
+        switch(currentType)
+        {
+            case STRING:
+                return currentString;
+            case INTEGER:
+            case DECIMAL:
+                return numberValue();
+            default:
+                return currentType.getValidContent();
+        }
+    }
+
+    /**
+     * Returns the value of the current {@link TokenType#STRING} token.
+     *
+     * @return string value
+     * @throws IllegalStateException if the current token is no string.
+     */
+    public String stringValue()
+    {
+        if (currentType != TokenType.STRING)
+        {
+            throw new IllegalStateException("Current token is no string: " + currentType);
+        }
+        return currentString;
+    }
+
+    /**
+     * Returns the value of the current {@link TokenType#INTEGER} or {@link TokenType#DECIMAL} token as long.
+     * Decimals are truncated.
+     *
+     * @return long value
+     * @throws IllegalStateException if the current token is no number.
+     */
+    public long longValue()
+    {
+        ensureNumber();
+        switch (numberKind)
+        {
+            case NUMBER_LONG:
+                return currentLong;
+            case NUMBER_DOUBLE:
+                return (long) currentDouble;
+            default:
+                return numberValue().longValue();
+        }
+    }
+
+    /**
+     * Returns the value of the current {@link TokenType#INTEGER} or {@link TokenType#DECIMAL} token as double.
+     *
+     * @return double value
+     * @throws IllegalStateException if the current token is no number.
+     */
+    public double doubleValue()
+    {
+        ensureNumber();
+        switch (numberKind)
+        {
+            case NUMBER_LONG:
+                return (double) currentLong;
+            case NUMBER_DOUBLE:
+                return currentDouble;
+            case NUMBER_SCALED:
+                long magnitude = Math.abs(currentLong);
+                if (isExactDouble(magnitude, currentScale))
+                {
+                    double value = exactDouble(magnitude, currentScale);
+                    return currentLong < 0 ? -value : value;
+                }
+                return numberValue().doubleValue();
+            default:
+                return currentNumber.doubleValue();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the current token is {@link TokenType#NULL}.
+     *
+     * @return <code>true</code> for null
+     */
+    public boolean isNull()
+    {
+        return currentType == TokenType.NULL;
+    }
+
+    /**
+     * Returns <code>true</code> if the current token is an {@link TokenType#INTEGER} in the range of long, so that
+     * {@link #longValue()} returns its exact value.
+     *
+     * @return <code>true</code> for integers fitting into a long
+     */
+    public boolean isLong()
+    {
+        if (currentType != TokenType.INTEGER)
+        {
+            return false;
+        }
+        return numberKind == NUMBER_LONG ||
+            (numberKind == NUMBER_OBJECT && (currentNumber instanceof Long || currentNumber instanceof Integer));
+    }
+
+    /**
+     * Returns <code>true</code> if the current token is a {@link TokenType#DECIMAL} parsed into a double in
+     * {@link NumberMode#DOUBLE}, so that {@link #doubleValue()} returns its value. Decimals outside of the double
+     * range are {@link BigDecimal}s in that mode, too.
+     *
+     * @return <code>true</code> for decimals held as double
+     */
+    public boolean isDouble()
+    {
+        if (currentType != TokenType.DECIMAL)
+        {
+            return false;
+        }
+        return numberKind == NUMBER_DOUBLE || (numberKind == NUMBER_OBJECT && currentNumber instanceof Double);
+    }
+
+    private void ensureNumber()
+    {
+        if (currentType != TokenType.INTEGER && currentType != TokenType.DECIMAL)
+        {
+            throw new IllegalStateException("Current token is no number: " + currentType);
+        }
+    }
+
+    /**
+     * Returns the boxed value of the current number token according to the {@link NumberMode}.
+     */
+    private Number numberValue()
+    {
+        switch (numberKind)
+        {
+            case NUMBER_LONG:
+                if (numberMode == NumberMode.DOUBLE && currentLong >= Integer.MIN_VALUE && currentLong <= Integer.MAX_VALUE)
+                {
+                    return (int) currentLong;
+                }
+                return currentLong;
+            case NUMBER_DOUBLE:
+                return currentDouble;
+            case NUMBER_SCALED:
+                return BigDecimal.valueOf(currentLong, currentScale);
+            default:
+                return currentNumber;
+        }
+    }
+
+    /**
+     * Makes the given token the current token.
+     */
+    private void setCurrent(Token token)
+    {
+        currentType = token.type();
+        if (currentType == TokenType.STRING)
+        {
+            currentString = (String) token.value();
+        }
+        else if (currentType == TokenType.INTEGER || currentType == TokenType.DECIMAL)
+        {
+            numberKind = NUMBER_OBJECT;
+            currentNumber = (Number) token.value();
+        }
+    }
+
+    /**
+     * Pushes back the given Token. This will reset the tokenizer to the index before the
+     * token was encountered and the next {@link #next()} call will return the same token again.
+     *
+     * @param  oldToken     token to push back
+     */
+    public void pushBack(Token oldToken)
+    {
+        Token[] recordedTokens = this.recordedTokens;
+        int mask = recordedTokens.length - 1;
+
+        int index = recordedHead;
+        while (index != recordedTail && !oldToken.equals(recordedTokens[index & mask]))
+        {
+            index++;
+        }
+
+        if (index == recordedTail)
+        {
+            throw new IllegalStateException("Can't rollback to non-recorded token " + oldToken);
+        }
+
+        // drop the tokens before the pushed back one
+        while (recordedHead != index)
+        {
+            recordedTokens[recordedHead++ & mask] = null;
+        }
+        tokenPushedBack = true;
+        recording = false;
+        pushBackIndex = index;
+    }
+
+    /**
+     * Appends the given token to the recorded tokens, growing the ring buffer if it is full.
+     *
+     * @param token     token to record
+     */
+    private void record(Token token)
+    {
+        Token[] recordedTokens = this.recordedTokens;
+        if (recordedTail - recordedHead == recordedTokens.length)
+        {
+            Token[] newTokens = new Token[recordedTokens.length * 2];
+            int mask = recordedTokens.length - 1;
+            int newMask = newTokens.length - 1;
+            for (int i = recordedHead; i != recordedTail; i++)
+            {
+                newTokens[i & newMask] = recordedTokens[i & mask];
+            }
+            this.recordedTokens = recordedTokens = newTokens;
+        }
+        recordedTokens[recordedTail++ & (recordedTokens.length - 1)] = token;
+    }
+
+    /**
+     * Parses the current parsing stream position into a token with the type {@link TokenType#INTEGER} or {@link TokenType#DECIMAL}.
+     * <p>
+     * Digits are accumulated directly into a long. Integers that fit into a long become INTEGER tokens, decimals whose
+     * digits fit into a long are created from the unscaled value and the scale. Only larger numbers are constructed
+     * from their characters.
+     *
+     * @param c1    first character
+     * @return  number token type
+     */
+    private TokenType parseNumber(int c1)
+    {
+        char[] numberChars = this.numberChars;
+        int length = 0;
+
+        boolean negative = c1 == '-';
+        // a leading plus was always parsed as decimal
+        boolean decimal = c1 == '+';
+        boolean valid = true;
+
+        // the mantissa is accumulated negatively like Long.parseLong does to cover Long.MIN_VALUE
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long multMin = limit / 10;
+        long unscaled = 0;
+        boolean fitsLong = true;
+        boolean mantissaDigits = false;
+        boolean inFraction = false;
+        int fractionDigits = 0;
+
+        boolean inExponent = false;
+        boolean exponentNegative = false;
+        int exponent = 0;
+        int exponentDigits = 0;
+
+        int c = c1;
+        while (true)
+        {
+            if (length == numberChars.length)
+            {
+                numberChars = this.numberChars = Arrays.copyOf(numberChars, length * 2);
+            }
+            numberChars[length++] = (char) c;
+
+            if (c >= '0' && c <= '9')
+            {
+                int digit = c - '0';
+                if (inExponent)
+                {
+                    exponent = exponent * 10 + digit;
+                    if (++exponentDigits > 9)
+                    {
+                        // let BigDecimal decide
+                        fitsLong = false;
+                    }
+                }
+                else
+                {
+                    mantissaDigits = true;
+                    if (inFraction)
+                    {
+                        fractionDigits++;
+                    }
+
+                    if (fitsLong)
+                    {
+                        if (unscaled < multMin)
+                        {
+                            fitsLong = false;
+                        }
+                        else
+                        {
+                            unscaled *= 10;
+                            if (unscaled < limit + digit)
+                            {
+                                fitsLong = false;
+                            }
+                            else
+                            {
+                                unscaled -= digit;
+                            }
+                        }
+                    }
+                }
+            }
+            else
+            {
+                switch (c)
+                {
+                    case '.':
+                        valid &= !inFraction && !inExponent;
+                        inFraction = true;
+                        decimal = true;
+                        break;
+                    case 'e':
+                    case 'E':
+                        valid &= mantissaDigits && !inExponent;
+                        inExponent = true;
+                        decimal = true;
+                        break;
+                    default:
+                        // '-' and '+' are only valid as first character or directly after the exponent character
+                        if (length > 1)
+                        {
+                            char prev = numberChars[length - 2];
+                            valid &= prev == 'e' || prev == 'E';
+                            exponentNegative = c == '-';
+                        }
+                        break;
+                }
+            }
+
+            c = nextChar();
+            if (!isNumberCharacter(c))
+            {
+                if (c >= 0)
+                {
+                    pushBack();
+                }
+                break;
+            }
+        }
+
+        valid &= mantissaDigits && (!inExponent || exponentDigits > 0);
+        if (!valid)
+        {
+            throw new JSONParseException("Error parsing double "+new String(numberChars, 0, length));
+        }
+
+        if (numberMode == NumberMode.DOUBLE)
+        {
+            return compactNumber(numberChars, length, negative, decimal, fitsLong, unscaled,
+                fitsLong ? (long) fractionDigits - (exponentNegative ? -exponent : exponent) : 0);
+        }
+
+        if (fitsLong)
+        {
+            long value = negative ? unscaled : -unscaled;
+            if (!decimal)
+            {
+                numberKind = NUMBER_LONG;
+                currentLong = value;
+                return TokenType.INTEGER;
+            }
+
+            long scale = (long) fractionDigits - (exponentNegative ? -exponent : exponent);
+            if (scale >= Integer.MIN_VALUE && scale <= Integer.MAX_VALUE)
+            {
+                numberKind = NUMBER_SCALED;
+                currentLong = value;
+                currentScale = (int) scale;
+                return TokenType.DECIMAL;
+            }
+        }
+
+        // must be a number exceeding the long range, convert to decimal
+        numberKind = NUMBER_OBJECT;
+        currentNumber = parseDecimal(numberChars, length);
+        return TokenType.DECIMAL;
+    }
+
+    /**
+     * Stores the current number for {@link NumberMode#DOUBLE}.
+     * <p>
+     * Decimals whose digits fit into 53 bits and whose power of ten is exactly representable as double are
+     * computed with a single, correctly rounded multiplication or division. All other decimals are handed to
+     * {@link Double#parseDouble(String)}. Decimals that overflow to infinity or underflow to zero become
+     * {@link BigDecimal}s.
+     *
+     * @param numberChars   characters of the number
+     * @param length        number of characters
+     * @param negative      <code>true</code> if the number is negative
+     * @param decimal       <code>true</code> if the number has a fraction or an exponent
+     * @param fitsLong      <code>true</code> if the digits of the number fit into a long
+     * @param unscaled      negated digits of the number if they fit into a long
+     * @param scale         number of decimal places if the digits of the number fit into a long
+     * @return  number token type
+     */
+    private TokenType compactNumber(char[] numberChars, int length, boolean negative, boolean decimal, boolean fitsLong,
+                                    long unscaled, long scale)
+    {
+        if (!decimal)
+        {
+            if (fitsLong)
+            {
+                numberKind = NUMBER_LONG;
+                currentLong = negative ? unscaled : -unscaled;
+            }
+            else
+            {
+                numberKind = NUMBER_OBJECT;
+                currentNumber = new BigInteger(new String(numberChars, 0, length));
+            }
+            return TokenType.INTEGER;
+        }
+
+        numberKind = NUMBER_DOUBLE;
+        if (fitsLong && isExactDouble(-unscaled, scale))
+        {
+            double value = exactDouble(-unscaled, scale);
+            currentDouble = negative ? -value : value;
+            return TokenType.DECIMAL;
+        }
+
+        double value;
+        try
+        {
+            value = Double.parseDouble(new String(numberChars, 0, length));
+        }
+        catch(NumberFormatException nfe)
+        {
+            throw new JSONParseException("Error parsing double "+new String(numberChars, 0, length));
+        }
+
+        if (Double.isInfinite(value) || (value == 0.0 && !(fitsLong && unscaled == 0) &&
+            parseDecimal(numberChars, length).signum() != 0))
+        {
+            // outside of the double range, keep the exact value like for integers exceeding the long range
+            numberKind = NUMBER_OBJECT;
+            currentNumber = parseDecimal(numberChars, length);
+            return TokenType.DECIMAL;
+        }
+        currentDouble = value;
+        return TokenType.DECIMAL;
+    }
+
+    /**
+     * Returns <code>true</code> if the double value of the given digits and scale can be computed exactly
+     * with {@link #exactDouble(long, long)}.
+     */
+    private static boolean isExactDouble(long magnitude, long scale)
+    {
+        return magnitude >= 0 && magnitude <= MAX_EXACT_DOUBLE_MANTISSA &&
+            scale >= -MAX_EXACT_POWER_OF_TEN && scale <= MAX_EXACT_POWER_OF_TEN;
+    }
+
+    private static double exactDouble(long magnitude, long scale)
+    {
+        double value = (double) magnitude;
+        if (scale < 0)
+        {
+            return value * POWERS_OF_TEN[(int) -scale];
+        }
+        else
+        {
+            return value / POWERS_OF_TEN[(int) scale];
+        }
+    }
+
+    /**
+     * Pushes back the last character read by {@link #nextChar()}.
+     */
+    private void pushBack()
+    {
+        position--;
+    }
+
+    /**
+     * Parses the given characters into a decimal.
+     *
+     * @param number    characters of the number to parse as decimal
+     * @param length    number of characters
+     * @return  decimal
+     */
+    private BigDecimal parseDecimal(char[] number, int length)
+    {
+        try
+        {
+            return new BigDecimal(number, 0, length);
+        }
+        catch(NumberFormatException nfe)
+        {
+            throw new JSONParseException("Error parsing double "+new String(number, 0, length));
+        }
+    }
+
+    /**
+     * Parses the current position into a quoted string quoted by the given
+     * quote char.
+     * @param quoteChar character that starts and ends this quoted string. must be a single or a double quote.
+     *
+     * @return string value
+     */
+    private String parseString(char quoteChar)
+    {
+        if (validating)
+        {
+            return validateString(quoteChar);
+        }
+
+        if (structuralIndex != null && quoteChar == '"')
+        {
+            String value = parseIndexedString();
+            if (value != null)
+            {
+                return value;
+            }
+        }
+
+        // fast path: scan ahead for the closing quote and create strings without escapes or control characters
+        // from the window in one go.
+        int end = position;
+        while (true)
+        {
+            if (bytes != null)
+            {
+                byte[] bytes = this.bytes;
+                end = SCANNER.findStringSpecial(bytes, end, limit, quoteChar);
+                if (end < limit && bytes[end] == quoteChar)
+                {
+                    int start = position;
+                    position = end + 1;
+                    if (isCanonical(end - start) && SCANNER.isASCII(bytes, start, end))
+                    {
+                        return symbolTable().lookupASCII(bytes, start, end - start);
+                    }
+                    return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+                }
+            }
+            else
+            {
+                char[] chars = this.chars;
+                end = SCANNER.findStringSpecial(chars, end, limit, quoteChar);
+                if (end < limit && chars[end] == quoteChar)
+                {
+                    int start = position;
+                    position = end + 1;
+                    if (isCanonical(end - start))
+                    {
+                        return symbolTable().lookup(chars, start, end - start);
+                    }
+                    return new String(chars, start, end - start);
+                }
+            }
+
+            if (end < limit)
+            {
+                break;
+            }
+
+            // keep what we scanned so far in the window
+            int scanned = end - position;
+            if (!fill())
+            {
+                break;
+            }
+            end = position + scanned;
+        }
+
+        // everything up to the escape or control character is plain text and ends on a character boundary
+        StringBuilder sb = new StringBuilder(end - position + 16);
+        if (bytes != null)
+        {
+            sb.append(new String(bytes, position, end - position, StandardCharsets.UTF_8));
+        }
+        else
+        {
+            sb.append(chars, position, end - position);
+        }
+        position = end;
+
+        boolean escape = false;
+        int c;
+        while ((c = nextChar()) >= 0)
+        {
+            if (c == quoteChar && !escape)
+            {
+                return sb.toString();
+            }
+
+            if (c == '\\')
+            {
+                if (escape)
+                {
+                    sb.append('\\');
+                }
+                escape = !escape;
+            }
+            else if (escape)
+            {
+                switch((char)c)
+                {
+                    case '\'':
+                    case '"':
+                    case '/':
+                        sb.append((char)c);
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        int unicode = (hexValue((char)nextChar()) << 12) + (hexValue((char)nextChar()) << 8) + (hexValue((char)nextChar()) << 4) + hexValue((char)nextChar()); 
+                        sb.append((char)unicode);
+                        break;
+                    default:
+                        throw new JSONParseException("Illegal escape character "+c+" / "+Integer.toHexString(c));
+                }
+                escape = false;
+            }
+            else
+            {
+                // we can't use java.lang.Character.isISOControl(int) because
+                // that uses an incorrect definition of control character.
+                // According to RFC4627 it's 0 to 31
+                if (c < 32)
+                {
+                    throw new JSONParseException("Illegal control character 0x"+Integer.toHexString(c));
+                }
+
+                if (c >= 0x80 && bytes != null)
+                {
+                    appendUTF8(sb, c);
+                }
+                else
+                {
+                    sb.append((char)c);
+                }
+            }
+        }
+        throw new JSONParseException("Unclosed quotes");
+    }
+    
+    /**
+     * Creates the string whose opening quote was just read, taking its end from the structural index.
+     *
+     * @return string or <code>null</code> if the string contains escapes or control characters or is not closed.
+     */
+    private String parseIndexedString()
+    {
+        int end = nextStructural(position);
+        if (end < 0 || bytes[end] != '"')
+        {
+            return null;
+        }
+
+        byte[] bytes = this.bytes;
+        if (SCANNER.findStringSpecial(bytes, position, end, '"') != end)
+        {
+            return null;
+        }
+
+        int start = position;
+        position = end + 1;
+        if (isCanonical(end - start) && SCANNER.isASCII(bytes, start, end))
+        {
+            return symbolTable().lookupASCII(bytes, start, end - start);
+        }
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Checks the rest of the string started with the given quote character like {@link #parseString(char)} does,
+     * without creating its value.
+     *
+     * @param quoteChar     quote character
+     * @return empty string
+     */
+    private String validateString(char quoteChar)
+    {
+        int c;
+        while ((c = nextChar()) >= 0)
+        {
+            if (c == quoteChar)
+            {
+                return "";
+            }
+
+            if (c == '\\')
+            {
+                c = nextChar();
+                switch (c)
+                {
+                    case '\\':
+                    case '\'':
+                    case '"':
+                    case '/':
+                    case 'b':
+                    case 'f':
+                    case 'n':
+                    case 'r':
+                    case 't':
+                        break;
+                    case 'u':
+                        for (int i = 0; i < 4; i++)
+                        {
+                            c = nextChar();
+                            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')))
+                            {
+                                throw new JSONParseException("Invalid hex character " + (char) c);
+                            }
+                        }
+                        break;
+                    default:
+                        throw new JSONParseException("Illegal escape character "+c+" / "+Integer.toHexString(c));
+                }
+            }
+            else if (c < 32)
+            {
+                throw new JSONParseException("Illegal control character 0x"+Integer.toHexString(c));
+            }
+        }
+        throw new JSONParseException("Unclosed quotes");
+    }
+
+    /**
+     * Returns <code>true</code> if the string of the given length that was just scanned should be canonicalized.
+     * Keys are recognized by the colon following them within the window.
+     *
+     * @param length    length of the string
+     */
+    private boolean isCanonical(int length)
+    {
+        if (length > SymbolTable.MAX_LENGTH)
+        {
+            return false;
+        }
+        if (canonicalizeValues && length <= MAX_CANONICAL_VALUE_LENGTH)
+        {
+            return true;
+        }
+        return canonicalizeKeys && isFollowedByColon();
+    }
+
+    /**
+     * Returns <code>true</code> if the next non-whitespace character in the current window is a colon.
+     */
+    private boolean isFollowedByColon()
+    {
+        for (int i = position; i < limit; i++)
+        {
+            int c = bytes != null ? bytes[i] : chars[i];
+            if (c == ':')
+            {
+                return true;
+            }
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+            {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private SymbolTable symbolTable()
+    {
+        if (symbolTable == null)
+        {
+            symbolTable = new SymbolTable();
+        }
+        return symbolTable;
+    }
+
+    /**
+     * Decodes the UTF-8 sequence starting with the given lead byte and appends the resulting code point to the given
+     * string builder. Malformed sequences are replaced by U+FFFD like the JDK decoders do.
+     *
+     * @param sb        string builder
+     * @param lead      lead byte of the sequence
+     */
+    private void appendUTF8(StringBuilder sb, int lead)
+    {
+        int codePoint;
+        int remaining;
+        if ((lead & 0xE0) == 0xC0)
+        {
+            codePoint = lead & 0x1F;
+            remaining = 1;
+        }
+        else if ((lead & 0xF0) == 0xE0)
+        {
+            codePoint = lead & 0x0F;
+            remaining = 2;
+        }
+        else if ((lead & 0xF8) == 0xF0)
+        {
+            codePoint = lead & 0x07;
+            remaining = 3;
+        }
+        else
+        {
+            sb.append('\uFFFD');
+            return;
+        }
+
+        while (remaining-- > 0)
+        {
+            int b = nextChar();
+            if ((b & 0xC0) != 0x80)
+            {
+                if (b >= 0)
+                {
+                    pushBack();
+                }
+                sb.append('\uFFFD');
+                return;
+            }
+            codePoint = (codePoint << 6) | (b & 0x3F);
+        }
+
+        if (codePoint > Character.MAX_CODE_POINT)
+        {
+            sb.append('\uFFFD');
+        }
+        else
+        {
+            sb.appendCodePoint(codePoint);
+        }
+    }
+
+    private final static int HEX_LETTER_OFFSET = 'A' - '9' - 1;
+    
+    public static int hexValue(char c)
+    {
+        int n = c;
+        if (n >= 'a')
+        {
+            n = n & ~32;
+        }
+        
+        if ( (n >= '0' && n <= '9') || (n >= 'A' && n <= 'F'))
+        {
+            n -= '0';
+            if (n > 9)
+            {
+                return n - HEX_LETTER_OFFSET;
+            }
+            else
+            {
+                return n;
+            }
+            
+        }
+        else
+        {
+            throw new NumberFormatException("Invalid hex character " + c);
+        }
+    }
+
+    /**
+     * Returns an info string containing the line and column of the current parsing position.
+     *
+     * @return  info string
+     */
+    private String info()
+    {
+        return "at character offset " + getIndex();
+    }
+
+    /**
+     * Returns the index of the next character to be tokenized. For {@link JSONByteSource}s, this is a byte index.
+     * The index is a <code>long</code> so that positions in sources larger than 2 GB stay correct.
+     *
+     * @return  character index
+     */
+    public long getIndex()
+    {
+        return bufferOffset + position;
+    }
+
+    /**
+     * Returns the index of the first character of the token scanned last, or the index of the end of the input for
+     * {@link TokenType#END}. Tokens replayed after {@link #pushBack(Token)} do not change it.
+     *
+     * @return  character index of the current token
+     * @see #getIndex()
+     */
+    public long getTokenIndex()
+    {
+        return tokenIndex;
+    }
+
+    /**
+     * Returns <code>true</code> if the given character is either a carriage return or linefeed
+     * @param c     character
+     *
+     * @return <code>true</code> if the given character is either a carriage return or linefeed
+     */
+    private boolean isCR(char c)
+    {
+        return c == '\r' || c == '\n';
+    }
+
+    /**
+     * Returns the next character.
+     *
+     * @return  next character
+     */
+    private int nextChar()
+    {
+        if (position < limit || fill())
+        {
+            if (bytes != null)
+            {
+                return bytes[position++] & 0xFF;
+            }
+            return chars[position++];
+        }
+        return -1;
+    }
+
+    /**
+     * Refills the window from the source. Characters or bytes before the current position or the mark are
+     * discarded. If the window is completely filled with characters that need to be kept, it is enlarged.
+     *
+     * @return <code>false</code> if the source has no more characters.
+     */
+    private boolean fill()
+    {
+        if (reachedEndOfJSON)
+        {
+            return false;
+        }
+
+        if (nonBlocking)
+        {
+            if (endOfInput)
+            {
+                reachedEndOfJSON = true;
+                return false;
+            }
+            throw NeedMoreInputException.INSTANCE;
+        }
+
+        if (!compact() && limit == (bytes != null ? bytes.length : chars.length))
+        {
+            if (bytes != null)
+            {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            else
+            {
+                chars = Arrays.copyOf(chars, chars.length * 2);
             }
         }
 
-        if (recording)
+        int count;
+        do
+        {
+            if (bytes != null)
+            {
+                count = byteSource.read(bytes, limit, bytes.length - limit);
+            }
+            else
+            {
+                count = charSource.read(chars, limit, chars.length - limit);
+            }
+        } while (count == 0);
+
+        if (count < 0)
         {
-            recordedTokens.add(token);
+            reachedEndOfJSON = true;
+            return false;
         }
-        
-        log.trace("token = {}", token);
 
-        return token;
+        limit += count;
+        return true;
     }
 
     /**
-     * Pushes back the given Token. This will reset the tokenizer to the index before the
-     * token was encountered and the next {@link #next()} call will return the same token again.
+     * Discards the characters or bytes before the current position, the mark and the start of the current token
+     * from the window.
      *
-     * @param  oldToken     token to push back
+     * @return <code>true</code> if anything was discarded.
      */
-    public void pushBack(Token oldToken)
+    private boolean compact()
     {
-        int index = recordedTokens.indexOf(oldToken);
-        
-        if (index < 0)
+        int keep = position;
+        if (markPosition >= 0 && markPosition < keep)
         {
-            throw new IllegalStateException("Can't rollback to non-recorded token " + oldToken);
+            keep = markPosition;
         }
-        else if (index > 0)
+        if (tokenStart >= 0 && tokenStart < keep)
         {
-            recordedTokens = recordedTokens.subList(index, recordedTokens.size());
+            keep = tokenStart;
         }
-        tokenPushedBack = true;
-        recording = false;
-        pushBackIndex = 0;
+
+        if (keep == 0)
+        {
+            return false;
+        }
+
+        int remaining = limit - keep;
+        if (remaining > 0)
+        {
+            System.arraycopy(bytes != null ? bytes : chars, keep, bytes != null ? bytes : chars, 0, remaining);
+        }
+        bufferOffset += keep;
+        position -= keep;
+        if (markPosition >= 0)
+        {
+            markPosition -= keep;
+        }
+        if (tokenStart >= 0)
+        {
+            tokenStart -= keep;
+        }
+        limit = remaining;
+        return true;
     }
 
     /**
-     * Parses the current parsing stream position into a token with the type {@link TokenType#INTEGER} or {@link TokenType#DECIMAL}.
-     * @param c1    first character
-     * @return  number token
+     * Appends the remaining bytes of the given buffer to the window of a non-blocking tokenizer.
+     *
+     * @param buffer    UTF-8 encoded input
      */
-    private Token parseNumber(char c1)
+    void append(ByteBuffer buffer)
     {
-        if ( c1 == '-')
+        if (endOfInput)
         {
-            isDecimal = false;
+            throw new IllegalStateException("Input already ended");
         }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(c1);
-        
-        int c;
-        while ((c = nextChar()) > -1)
+        int length = buffer.remaining();
+        if (limit + length > bytes.length)
         {
-            if (!isNumberCharacter((char)c))
+            compact();
+            if (limit + length > bytes.length)
             {
-                pushBack((char)c);
-                break;
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, limit + length));
             }
-            sb.append((char)c);
-        } 
+        }
+        buffer.get(bytes, limit, length);
+        limit += length;
+    }
+
+    /**
+     * Signals a non-blocking tokenizer that no more input will be appended.
+     */
+    void endInput()
+    {
+        endOfInput = true;
+    }
+
+    /**
+     * Thrown inside a non-blocking tokenizer when the window runs out of input in the middle of a token.
+     */
+    private final static class NeedMoreInputException
+        extends RuntimeException
+    {
+        private static final long serialVersionUID = -5170263372370453361L;
 
-        String number = sb.toString();
+        private final static NeedMoreInputException INSTANCE = new NeedMoreInputException();
 
-        if (isDecimal)
+        private NeedMoreInputException()
         {
-            return parseDecimal(number);
+            super(null, null, false, false);
         }
-        else
+    }
+
+    /**
+     * Skips all white-space at the current parsing position and returns the first non-whitespace
+     * character.
+     *
+     * @return first non-whitespace character or -1 if the end of the JSON was reached.
+     */
+    private int skipWhiteSpace()
+    {
+        do
         {
-            try
+            final int lim = limit;
+            int pos = position;
+            if (bytes != null)
             {
-                long l = Long.parseLong(number );
-                return Token.getToken(TokenType.INTEGER, l);
+                final byte[] buf = bytes;
+                while (pos < lim)
+                {
+                    int c = buf[pos++] & 0xFF;
+                    switch(c)
+                    {
+                        case ' ':
+                        case '\r':
+                        case '\b':
+                        case '\n':
+                        case '\t':
+                            pos = SCANNER.skipWhiteSpace(buf, pos, lim);
+                            break;
+                        default:
+                            position = pos;
+                            return c;
+                    }
+                }
             }
-            catch(NumberFormatException nfe)
+            else
             {
-                // must be a integer greater than Long.MAX_VALUE
-                // convert to decimal
-                return parseDecimal(number);
+                final char[] buf = chars;
+                while (pos < lim)
+                {
+                    char c = buf[pos++];
+                    switch(c)
+                    {
+                        case ' ':
+                        case '\r':
+                        case '\b':
+                        case '\n':
+                        case '\t':
+                            pos = SCANNER.skipWhiteSpace(buf, pos, lim);
+                            break;
+                        default:
+                            position = pos;
+                            return c;
+                    }
+                }
             }
+            position = pos;
+
+        } while (fill());
+
+        return -1;
+    }
+
+    /**
+     * Returns <code>true</code> if there are no more tokens in the JSON. This skips whitespace but does not consume any
+     * token, so the tokenizer can be used to read several JSON documents following each other.
+     *
+     * @return <code>true</code> if the next token will be {@link TokenType#END}.
+     */
+    public boolean isAtEnd()
+    {
+        ensureBlocking();
+        if (tokenPushedBack)
+        {
+            return recordedTokens[(recording ? pushBackIndex : recordedHead) & (recordedTokens.length - 1)].type() == TokenType.END;
         }
+
+        if (skipWhiteSpace() < 0)
+        {
+            return true;
+        }
+        pushBack();
+        return false;
     }
 
-    private void pushBack(char c)
+    /**
+     * Returns <code>true</code> if {@link #mark()} can be used at the current position, which is the case
+     * as long as the tokenizer is neither recording tokens nor replaying pushed back tokens.
+     *
+     * @return <code>true</code> if mark is supported
+     */
+    public boolean isMarkSupported()
     {
-        pushedBack = c;
+        return !recording && !tokenPushedBack;
     }
 
     /**
-     * Parses the given string into a token with the type {@link TokenType#DECIMAL}.
-     * @param number    number to parse as decimal
-     * @return  DECIMAL token
+     * Marks the current position in the character window. A following {@link #reset()} returns the tokenizer to
+     * this position and current token without having to record the tokens in between. The window keeps all
+     * characters from the mark on until the reset.
+     *
+     * @throws IllegalStateException if mark is not supported at the current position.
+     * @see #isMarkSupported()
      */
-    private Token parseDecimal(String number)
+    public void mark()
     {
-        try
+        if (!isMarkSupported())
         {
-            BigDecimal d =  new BigDecimal(number);
-            return Token.getToken(TokenType.DECIMAL, d);
+            throw new IllegalStateException("Can't mark while recording or replaying tokens");
         }
-        catch(NumberFormatException nfe)
+        markPosition = position;
+        markedType = currentType;
+        markedString = currentString;
+        markedNumberKind = numberKind;
+        markedLong = currentLong;
+        markedScale = currentScale;
+        markedDouble = currentDouble;
+        markedNumber = currentNumber;
+    }
+
+    /**
+     * Resets the tokenizer to the position and current token of the last {@link #mark()} and removes the mark.
+     *
+     * @throws IllegalStateException if there is no mark or the tokenizer started recording or replaying since the mark.
+     */
+    public void reset()
+    {
+        if (markPosition < 0)
+        {
+            throw new IllegalStateException("No mark set");
+        }
+        if (!isMarkSupported())
         {
-            throw new JSONParseException("Error parsing double "+number);
+            throw new IllegalStateException("Can't reset while recording or replaying tokens");
         }
+        position = markPosition;
+        markPosition = -1;
+        currentType = markedType;
+        currentString = markedString;
+        numberKind = markedNumberKind;
+        currentLong = markedLong;
+        currentScale = markedScale;
+        currentDouble = markedDouble;
+        currentNumber = markedNumber;
+        markedString = null;
+        markedNumber = null;
     }
 
     /**
-     * Parses the current position into a quoted string quoted by the given
-     * quote char.
-     * @param quoteChar character that starts and ends this quoted string. must be a single or a double quote.
+     * Skips the next value including all nested objects and arrays. Unless the tokenizer is recording or replaying
+     * tokens, the value is skimmed on the character level without creating tokens or values. Skimming does only
+     * validate the nesting of objects and arrays and the quoting of strings. The value of a skimmed string is not
+     * available from {@link #stringValue()}.
      *
-     * @return STRING token
+     * @throws JSONParseException if the end of the JSON is reached or there is no value at the current position.
      */
-    private Token parseString(char quoteChar)
+    public void skipValue()
     {
-        StringBuilder sb = new StringBuilder();
-        boolean escape = false;
-        int c;
-        while ((c = nextChar()) >= 0)
+        ensureBlocking();
+        if (!isMarkSupported())
         {
-            if (c == quoteChar && !escape)
+            TokenType type = nextType();
+            if (type == TokenType.BRACE_OPEN || type == TokenType.BRACKET_OPEN)
             {
-                return Token.getToken(TokenType.STRING, sb.toString());
+                skipComplexValue();
             }
-
-            if (c == '\\')
+            else if (!type.isPrimitive())
             {
-                if (escape)
+                throw new JSONParseException("Unexpected token " + currentToken());
+            }
+            return;
+        }
+
+        int c = skipWhiteSpace();
+        switch (c)
+        {
+            case -1:
+                throw new JSONParseException("Unexpected end");
+            case '{':
+            case '[':
+                skipComplexValue();
+                return;
+            case '"':
+                skimString('"');
+                currentType = TokenType.STRING;
+                currentString = null;
+                return;
+            case '\'':
+                if (allowSingleQuotes)
                 {
-                    sb.append('\\');
+                    skimString('\'');
+                    currentType = TokenType.STRING;
+                    currentString = null;
+                    return;
                 }
-                escape = !escape;
-            }
-            else if (escape)
+                break;
+            default:
+                break;
+        }
+
+        // keyword or number, let the tokenizer parse it
+        pushBack();
+        if (!nextType().isPrimitive())
+        {
+            throw new JSONParseException("Unexpected token " + currentToken());
+        }
+    }
+
+    /**
+     * Skips the rest of the object or array whose opening brace or bracket was just read, including all nested objects
+     * and arrays. Unless the tokenizer is recording or replaying tokens, the value is skimmed on the character level.
+     *
+     * @throws IllegalStateException if the end of the JSON is reached.
+     */
+    public void skipComplexValue()
+    {
+        ensureBlocking();
+        int level = 1;
+        if (!isMarkSupported())
+        {
+            TokenType type;
+            while ((type = nextType()) != TokenType.END)
             {
-                switch((char)c)
+                if (type == TokenType.BRACE_OPEN || type == TokenType.BRACKET_OPEN)
                 {
-                    case '\'':
-                    case '"':
-                    case '/':
-                        sb.append((char)c);
-                        break;
-                    case 'b':
-                        sb.append('\b');
-                        break;
-                    case 'f':
-                        sb.append('\f');
-                        break;
-                    case 'n':
-                        sb.append('\n');
-                        break;
-                    case 'r':
-                        sb.append('\r');
-                        break;
-                    case 't':
-                        sb.append('\t');
-                        break;
-                    case 'u':
-                        int unicode = (hexValue((char)nextChar()) << 12) + (hexValue((char)nextChar()) << 8) + (hexValue((char)nextChar()) << 4) + hexValue((char)nextChar()); 
-                        sb.append((char)unicode);
-                        break;
-                    default:
-                        throw new JSONParseException("Illegal escape character "+c+" / "+Integer.toHexString(c));
+                    level++;
                 }
-                escape = false;
-            }
-            else
-            {
-                // we can't use java.lang.Character.isISOControl(int) because
-                // that uses an incorrect definition of control character.
-                // According to RFC4627 it's 0 to 31
-                if (c < 32)
+                else if ((type == TokenType.BRACE_CLOSE || type == TokenType.BRACKET_CLOSE) && --level == 0)
                 {
-                    throw new JSONParseException("Illegal control character 0x"+Integer.toHexString(c));
+                    return;
                 }
-                sb.append((char)c);
             }
+            throw new IllegalStateException("Unexpected end");
         }
-        throw new JSONParseException("Unclosed quotes");
-    }
-    
-    private final static int HEX_LETTER_OFFSET = 'A' - '9' - 1;
-    
-    public static int hexValue(char c)
-    {
-        int n = c;
-        if (n >= 'a')
+
+        if (structuralIndex != null)
         {
-            n = n & ~32;
+            skimIndexedComplexValue();
+            return;
         }
-        
-        if ( (n >= '0' && n <= '9') || (n >= 'A' && n <= 'F'))
+
+        int c;
+        while ((c = nextChar()) >= 0)
         {
-            n -= '0';
-            if (n > 9)
-            {
-                return n - HEX_LETTER_OFFSET;
-            }
-            else
+            switch (c)
             {
-                return n;
+                case '{':
+                case '[':
+                    level++;
+                    break;
+                case '}':
+                case ']':
+                    if (--level == 0)
+                    {
+                        currentType = c == '}' ? TokenType.BRACE_CLOSE : TokenType.BRACKET_CLOSE;
+                        return;
+                    }
+                    break;
+                case '"':
+                    skimString('"');
+                    break;
+                case '\'':
+                    if (allowSingleQuotes)
+                    {
+                        skimString('\'');
+                    }
+                    break;
+                default:
+                    break;
             }
-            
-        }
-        else
-        {
-            throw new NumberFormatException("Invalid hex character " + c);
         }
+        throw new IllegalStateException("Unexpected end");
     }
 
     /**
-     * Returns an info string containing the line and column of the current parsing position.
-     *
-     * @return  info string
+     * Skims the rest of the object or array whose opening brace or bracket was just read by walking the structural
+     * index. Strings don't need any handling since their contents are not part of the index.
      */
-    private String info()
+    private void skimIndexedComplexValue()
     {
-        return "at character offset " + source.getIndex();
+        StructuralIndex index = structuralIndex;
+        byte[] bytes = this.bytes;
+        int level = 1;
+        nextStructural(position);
+        for (int i = structuralCursor, size = index.size(); i < size; i++)
+        {
+            int pos = index.get(i);
+            switch (bytes[pos])
+            {
+                case '{':
+                case '[':
+                    level++;
+                    break;
+                case '}':
+                case ']':
+                    if (--level == 0)
+                    {
+                        position = pos + 1;
+                        structuralCursor = i + 1;
+                        currentType = bytes[pos] == '}' ? TokenType.BRACE_CLOSE : TokenType.BRACKET_CLOSE;
+                        return;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        position = limit;
+        throw new IllegalStateException("Unexpected end");
     }
 
-    /**
-     * Returns <code>true</code> if the given character is either a carriage return or linefeed
-     * @param c     character
-     *
-     * @return <code>true</code> if the given character is either a carriage return or linefeed
-     */
-    private boolean isCR(char c)
+    private void ensureBlocking()
     {
-        return c == '\r' || c == '\n';
+        if (nonBlocking)
+        {
+            throw new IllegalStateException("Values cannot be skipped by non-blocking tokenizers");
+        }
     }
 
     /**
-     * Returns the next character.
+     * Skips the characters of the quoted string whose opening quote was just read.
      *
-     * @return  next character
+     * @param quoteChar     quote character
      */
-    private int nextChar()
+    private void skimString(char quoteChar)
     {
-        if (pushedBack != 0)
-        {
-            char c = pushedBack;
-            pushedBack = 0;
-            return c;
-        }
-        else
+        if (structuralIndex != null && quoteChar == '"')
         {
-            int c = source.nextChar();
-            
-            if (c < 0)
+            int end = nextStructural(position);
+            if (end >= 0 && bytes[end] == '"')
             {
-                reachedEndOfJSON = true;
+                position = end + 1;
+                return;
             }
-            
-            return c;
         }
-    }
 
-    /**
-     * Skips all white-space at the current parsing position; will set the
-     * position to the first non-whitespace character.
-     */
-    private void skipWhiteSpace()
-    {
         int c;
-        while ((c = nextChar()) != -1)
+        while ((c = nextChar()) >= 0)
         {
-            switch(c)
+            if (c == quoteChar)
             {
-                case ' ':
-                case '\r':
-                case '\b':
-                case '\n':
-                case '\t':
-                    break;
-                default:
-                    pushBack((char)c);
-                    return;
+                return;
+            }
+            if (c == '\\')
+            {
+                nextChar();
             }
-        } 
+        }
+        throw new JSONParseException("Unclosed quotes");
     }
 
     /**
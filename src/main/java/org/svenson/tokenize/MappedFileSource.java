@@ -0,0 +1,231 @@
+package org.svenson.tokenize;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.svenson.util.ExceptionWrapper;
+
+/**
+ * {@link JSONByteSource} implementation for UTF-8 encoded JSON files of arbitrary size. The file is memory-mapped
+ * in sliding windows, so the bytes come from the OS page cache without read system calls. They are still copied from
+ * the mapped window into the tokenizer window by {@link #read(byte[], int, int)}. Offsets are tracked as
+ * <code>long</code> values so positions stay correct beyond 2 GB.
+ * <p>
+ * A window is unmapped as soon as the next one is mapped or the source is destroyed. If the JVM does not allow the
+ * explicit unmapping, the mapping is released once the window is garbage collected.
+ *
+ * @author fforw at gmx dot de
+ */
+public class MappedFileSource
+    extends AbstractJSONByteSource
+{
+    /**
+     * Default size of the mapped windows.
+     */
+    public final static int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private static Logger log = LoggerFactory.getLogger(MappedFileSource.class);
+
+    /**
+     * <code>sun.misc.Unsafe</code> instance and its <code>invokeCleaner</code> method used to unmap windows, or
+     * <code>null</code> if not available.
+     */
+    private final static Object UNSAFE;
+
+    private final static Method INVOKE_CLEANER;
+
+    static
+    {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try
+        {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch (Exception | LinkageError e)
+        {
+            log.debug("Explicit unmapping not available: {}", e.toString());
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final FileChannel channel;
+
+    private final long size;
+
+    private final int windowSize;
+
+    private MappedByteBuffer window;
+
+    /**
+     * File offset of the first byte of the current window.
+     */
+    private long windowOffset;
+
+    public MappedFileSource(File file)
+    {
+        this(file.toPath(), DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedFileSource(Path path)
+    {
+        this(path, DEFAULT_WINDOW_SIZE);
+    }
+
+    /**
+     * Creates a source mapping the given file in windows of the given size.
+     *
+     * @param path          path of the file to parse
+     * @param windowSize    size of the mapped windows in bytes
+     */
+    public MappedFileSource(Path path, int windowSize)
+    {
+        if (path == null)
+        {
+            throw new IllegalArgumentException("path cannot be null");
+        }
+        if (windowSize <= 0)
+        {
+            throw new IllegalArgumentException("window size must be positive");
+        }
+
+        try
+        {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            this.size = channel.size();
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+        this.windowSize = windowSize;
+    }
+
+    public int read(byte[] buffer, int offset, int length)
+    {
+        if (window == null || !window.hasRemaining())
+        {
+            long next = window == null ? windowOffset : windowOffset + window.capacity();
+            if (next >= size)
+            {
+                return -1;
+            }
+            map(next);
+        }
+
+        int count = Math.min(window.remaining(), length);
+        window.get(buffer, offset, count);
+        return count;
+    }
+
+    private void map(long offset)
+    {
+        unmap();
+        try
+        {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(windowSize, size - offset));
+            windowOffset = offset;
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+    }
+
+    /**
+     * Drops the current window and releases its mapping right away if possible. The window is never handed out, so
+     * nothing can access the unmapped memory afterwards.
+     */
+    private void unmap()
+    {
+        MappedByteBuffer window = this.window;
+        if (window == null)
+        {
+            return;
+        }
+        windowOffset += window.position();
+        this.window = null;
+
+        if (INVOKE_CLEANER != null)
+        {
+            try
+            {
+                INVOKE_CLEANER.invoke(UNSAFE, window);
+            }
+            catch (Exception e)
+            {
+                log.debug("Unmapping failed: {}", e.toString());
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes delivered so far.
+     *
+     * @return file offset of the next byte to be read
+     */
+    public long getOffset()
+    {
+        return (window == null ? windowOffset : windowOffset + window.position()) - getUnreadCount();
+    }
+
+    /**
+     * Returns the size of the file.
+     *
+     * @return size in bytes
+     */
+    public long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the byte index. Offsets should be reported with {@link #getOffset()}, which also works for files larger
+     * than 2 GB.
+     *
+     * @throws IllegalStateException if the index exceeds {@link Integer#MAX_VALUE}, as allowed by
+     *                               {@link JSONCharacterSource#getIndex()}
+     */
+    public int getIndex()
+    {
+        long offset = getOffset();
+        if (offset > Integer.MAX_VALUE)
+        {
+            throw new IllegalStateException("Byte index " + offset + " exceeds the int range, use getOffset()");
+        }
+        return (int) offset;
+    }
+
+    /**
+     * Unmaps the current window and closes the file channel.
+     */
+    public void destroy()
+    {
+        unmap();
+
+        try
+        {
+            channel.close();
+        }
+        catch (IOException e)
+        {
+            throw ExceptionWrapper.wrap(e);
+        }
+    }
+}
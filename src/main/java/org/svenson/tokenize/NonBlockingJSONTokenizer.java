@@ -0,0 +1,82 @@
+package org.svenson.tokenize;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Push-fed variant of {@link JSONTokenizer} for event-driven I/O. Instead of pulling characters from a blocking
+ * {@link JSONCharacterSource}, UTF-8 encoded input is fed chunk by chunk as it arrives.
+ * <p>
+ * If the input fed so far ends within a token, {@link #next()} and {@link #nextType()} return
+ * {@link TokenType#NEED_MORE_INPUT} instead of blocking. After feeding more input, the same call resumes with the
+ * interrupted token. Once all input was fed, {@link #endOfInput()} must be called to receive the final tokens and
+ * {@link TokenType#END}.
+ * <p>
+ * Values cannot be skipped with {@link #skipValue()} or {@link #skipComplexValue()} by non-blocking tokenizers.
+ *
+ * <pre>
+ * NonBlockingJSONTokenizer tokenizer = new NonBlockingJSONTokenizer(false);
+ * tokenizer.feed(chunk);
+ * TokenType type;
+ * while ((type = tokenizer.nextType()) != TokenType.NEED_MORE_INPUT &amp;&amp; type != TokenType.END)
+ * {
+ *     ...
+ * }
+ * </pre>
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public class NonBlockingJSONTokenizer
+    extends JSONTokenizer
+{
+    /**
+     * Constructs a new non-blocking tokenizer. If allowSingleQuotes is <code>true</code>, the parser will also allow
+     * the JSON to contain quoted string that are quoted with single quotes.
+     *
+     * @param allowSingleQuotes     if <code>true</code>, single quotes ('\'') is allowed as quoting character, too
+     */
+    public NonBlockingJSONTokenizer(boolean allowSingleQuotes)
+    {
+        super(allowSingleQuotes);
+    }
+
+    /**
+     * Feeds the remaining bytes of the given buffer to the tokenizer. The bytes are copied, so the buffer can be
+     * reused after this method returns.
+     *
+     * @param buffer    UTF-8 encoded JSON input
+     *
+     * @throws IllegalStateException if {@link #endOfInput()} was already called.
+     */
+    public void feed(ByteBuffer buffer)
+    {
+        if (buffer == null)
+        {
+            throw new IllegalArgumentException("buffer cannot be null.");
+        }
+        append(buffer);
+    }
+
+    /**
+     * Feeds the given range of bytes to the tokenizer.
+     *
+     * @param bytes     UTF-8 encoded JSON input
+     * @param offset    offset of the first byte
+     * @param length    number of bytes
+     *
+     * @throws IllegalStateException if {@link #endOfInput()} was already called.
+     */
+    public void feed(byte[] bytes, int offset, int length)
+    {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Signals that all input was fed. The tokenizer will return {@link TokenType#END} instead of
+     * {@link TokenType#NEED_MORE_INPUT} after the last token.
+     */
+    public void endOfInput()
+    {
+        endInput();
+    }
+}
@@ -0,0 +1,27 @@
+package org.svenson.tokenize;
+
+/**
+ * Defines the java types {@link JSONTokenizer} uses for the values of {@link TokenType#INTEGER} and
+ * {@link TokenType#DECIMAL} tokens.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public enum NumberMode
+{
+    /**
+     * Integers become {@link Long}s, decimals and integers exceeding the long range become
+     * {@link java.math.BigDecimal}s. This is the default mode and preserves the exact value of every number.
+     */
+    BIG_DECIMAL,
+
+    /**
+     * Integers become {@link Integer}s if they fit into an int, {@link Long}s if they fit into a long and
+     * {@link java.math.BigInteger}s otherwise. Decimals become {@link Double}s, correctly rounded to the nearest
+     * double value. Decimals exceeding the double range, that would become infinite or lose all digits to zero, become
+     * {@link java.math.BigDecimal}s.
+     * <p>
+     * This mode produces much smaller value graphs when parsing into untyped maps and lists.
+     */
+    DOUBLE
+}
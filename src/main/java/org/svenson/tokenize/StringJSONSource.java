@@ -8,10 +8,12 @@ package org.svenson.tokenize;
  * @author fforw at gmx dot de
  */
 public class StringJSONSource
-    implements JSONCharacterSource
+    implements JSONCharacterBufferSource
 {
     private String json;
 
+    private int start;
+
     private int index;
 
     private int length;
@@ -22,6 +24,29 @@ public class StringJSONSource
         this.length = json.length();
     }
 
+    /**
+     * Creates a source for the given range of the given string.
+     *
+     * @param json      string containing JSON
+     * @param start     index of the first character
+     * @param end       index after the last character
+     */
+    public StringJSONSource(String json, int start, int end)
+    {
+        if (json == null)
+        {
+            throw new IllegalArgumentException("json string cannot be null");
+        }
+        if (start < 0 || end < start || end > json.length())
+        {
+            throw new IllegalArgumentException("Invalid range " + start + " / " + end + " for " + json.length() + " characters");
+        }
+        this.json = json;
+        this.start = start;
+        this.index = start;
+        this.length = end;
+    }
+
     public int nextChar()
     {
         if (index < length)
@@ -34,9 +59,33 @@ public class StringJSONSource
         }
     }
 
+    public int read(char[] buffer, int offset, int length)
+    {
+        int remaining = this.length - index;
+        if (remaining <= 0)
+        {
+            return -1;
+        }
+
+        int count = Math.min(remaining, length);
+        json.getChars(index, index + count, buffer, offset);
+        index += count;
+        return count;
+    }
+
+    /**
+     * Returns the length of the JSON string or range.
+     *
+     * @return length of the JSON string or range
+     */
+    public int length()
+    {
+        return length - start;
+    }
+
     public int getIndex()
     {
-        return index;
+        return index - start;
     }
 
     public void destroy()
@@ -0,0 +1,269 @@
+package org.svenson.tokenize;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Index of the structural characters of UTF-8 encoded JSON in a byte array, the first stage of a two-stage parser
+ * like simdjson.
+ * <p>
+ * The index contains the positions of all <code>{ } [ ] : ,</code> outside of strings and of all unescaped double
+ * quotes in ascending order. It is built in blocks of 64 bytes, eight bytes at a time: The bytes of each class are
+ * found with SWAR comparisons and gathered into 64-bit masks. Escaped quotes are removed by finding the ends of odd
+ * backslash sequences, then a prefix xor of the quote mask yields the bytes within strings, which are masked out.
+ * State is carried over from block to block, so no byte is looked at twice.
+ * <p>
+ * Single-quoted strings are not supported.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public final class StructuralIndex
+{
+    private final static VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final static long ONES = 0x0101010101010101L;
+
+    private final static long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Multiplier gathering the high bits of all bytes, shifted down to bit 0, into the highest byte.
+     */
+    private final static long GATHER = 0x0102040810204080L;
+
+    private final static long EVEN_BITS = 0x5555555555555555L;
+
+    private final static long ODD_BITS = ~EVEN_BITS;
+
+    private final static long QUOTE = ONES * '"';
+
+    private final static long BACKSLASH = ONES * '\\';
+
+    private final static long BRACE_OPEN = ONES * '{';
+
+    private final static long BRACE_CLOSE = ONES * '}';
+
+    private final static long BRACKET_OPEN = ONES * '[';
+
+    private final static long BRACKET_CLOSE = ONES * ']';
+
+    private final static long COLON = ONES * ':';
+
+    private final static long COMMA = ONES * ',';
+
+    private int[] positions;
+
+    private int size;
+
+    /**
+     * 1 if the previous block ended with an odd number of backslashes.
+     */
+    private long prevEndsOddBackslash;
+
+    /**
+     * All ones if the previous block ended within a string.
+     */
+    private long prevInString;
+
+    private StructuralIndex(int capacity)
+    {
+        positions = new int[Math.max(16, capacity)];
+    }
+
+    /**
+     * Builds the structural index for the given range of the given byte array.
+     *
+     * @param bytes     UTF-8 encoded JSON
+     * @param offset    offset of the first byte
+     * @param length    number of bytes
+     * @return structural index
+     */
+    public static StructuralIndex build(byte[] bytes, int offset, int length)
+    {
+        if (offset < 0 || length < 0 || offset + length > bytes.length)
+        {
+            throw new IllegalArgumentException("Invalid range " + offset + " / " + length + " for " + bytes.length + " bytes");
+        }
+
+        StructuralIndex index = new StructuralIndex(length / 8);
+        int end = offset + length;
+        int base = offset;
+        for (; base + 64 <= end; base += 64)
+        {
+            index.indexBlock(bytes, base, base, -1L);
+        }
+
+        if (base < end)
+        {
+            byte[] block = new byte[64];
+            Arrays.fill(block, (byte) ' ');
+            System.arraycopy(bytes, base, block, 0, end - base);
+            index.indexBlock(block, 0, base, (1L << (end - base)) - 1);
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of structural characters.
+     *
+     * @return number of structural characters
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * Returns the position of the structural character with the given number.
+     *
+     * @param i     number of the structural character
+     * @return position in the byte array
+     */
+    public int get(int i)
+    {
+        if (i >= size)
+        {
+            throw new IndexOutOfBoundsException("Invalid index " + i);
+        }
+        return positions[i];
+    }
+
+    /**
+     * Returns the number of the first structural character at or after the given position.
+     *
+     * @param position  position in the byte array
+     * @return number of the structural character or {@link #size()} if there is none
+     */
+    public int find(int position)
+    {
+        int low = 0;
+        int high = size;
+        while (low < high)
+        {
+            int mid = (low + high) >>> 1;
+            if (positions[mid] < position)
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns <code>true</code> if the indexed range ends within a string.
+     *
+     * @return <code>true</code> if the last string is not closed
+     */
+    public boolean isStringUnclosed()
+    {
+        return prevInString != 0;
+    }
+
+    /**
+     * Indexes the 64 bytes at the given offset of the given block.
+     *
+     * @param block     bytes
+     * @param offset    offset of the 64 bytes
+     * @param base      position of the first byte in the indexed array
+     * @param valid     mask of the bytes belonging to the indexed range
+     */
+    private void indexBlock(byte[] block, int offset, int base, long valid)
+    {
+        long quotes = 0;
+        long backslashes = 0;
+        long structurals = 0;
+        for (int i = 0; i < 8; i++)
+        {
+            long word = (long) LONGS.get(block, offset + (i << 3));
+            int shift = i << 3;
+            quotes |= gather(equalBytes(word, QUOTE)) << shift;
+            backslashes |= gather(equalBytes(word, BACKSLASH)) << shift;
+            structurals |= gather(equalBytes(word, BRACE_OPEN) | equalBytes(word, BRACE_CLOSE) |
+                equalBytes(word, BRACKET_OPEN) | equalBytes(word, BRACKET_CLOSE) | equalBytes(word, COLON) |
+                equalBytes(word, COMMA)) << shift;
+        }
+
+        quotes &= ~escaped(backslashes);
+
+        long inString = prefixXor(quotes) ^ prevInString;
+        prevInString = inString >> 63;
+
+        long bits = ((structurals & ~inString) | quotes) & valid;
+        add(base, bits);
+    }
+
+    /**
+     * Returns a word with the high bit set in every byte of the given word equal to the byte of the given pattern.
+     */
+    private static long equalBytes(long word, long pattern)
+    {
+        long x = word ^ pattern;
+        // adding 0x7F to the low seven bits sets the high bit for every non-zero byte without carrying over
+        return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+    }
+
+    /**
+     * Gathers the high bits of the eight bytes of the given word into the lowest eight bits.
+     */
+    private static long gather(long highBits)
+    {
+        return ((highBits >>> 7) * GATHER) >>> 56;
+    }
+
+    /**
+     * Returns the mask of the characters escaped by an odd sequence of backslashes.
+     */
+    private long escaped(long backslashes)
+    {
+        long startEdges = backslashes & ~(backslashes << 1);
+
+        // a sequence continuing from the previous block starts at an odd position
+        long evenStartMask = EVEN_BITS ^ prevEndsOddBackslash;
+        long evenStarts = startEdges & evenStartMask;
+        long oddStarts = startEdges & ~evenStartMask;
+
+        long evenCarries = backslashes + evenStarts;
+        long oddCarries = backslashes + oddStarts;
+        boolean endsOdd = Long.compareUnsigned(oddCarries, backslashes) < 0;
+        oddCarries |= prevEndsOddBackslash;
+        prevEndsOddBackslash = endsOdd ? 1L : 0L;
+
+        long evenCarryEnds = evenCarries & ~backslashes;
+        long oddCarryEnds = oddCarries & ~backslashes;
+        return (evenCarryEnds & ODD_BITS) | (oddCarryEnds & EVEN_BITS);
+    }
+
+    /**
+     * Returns the mask with every bit set that has an odd number of set bits at or below it in the given mask.
+     */
+    private static long prefixXor(long bits)
+    {
+        bits ^= bits << 1;
+        bits ^= bits << 2;
+        bits ^= bits << 4;
+        bits ^= bits << 8;
+        bits ^= bits << 16;
+        bits ^= bits << 32;
+        return bits;
+    }
+
+    private void add(int base, long bits)
+    {
+        int count = Long.bitCount(bits);
+        if (size + count > positions.length)
+        {
+            positions = Arrays.copyOf(positions, Math.max(size + count, positions.length * 2));
+        }
+        while (bits != 0)
+        {
+            positions[size++] = base + Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+        }
+    }
+}
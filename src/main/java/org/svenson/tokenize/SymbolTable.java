@@ -0,0 +1,146 @@
+package org.svenson.tokenize;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Direct-mapped cache of canonical String instances used by {@link JSONTokenizer} for object keys and optionally
+ * for short string values. Candidates are matched on hash code and characters directly from the tokenizer window,
+ * so repeated keys neither allocate nor create duplicate Strings.
+ * <p>
+ * A symbol table can be shared between tokenizers and threads. Concurrent updates can only cause cache misses as
+ * the cached Strings are immutable.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+public final class SymbolTable
+{
+    /**
+     * Default number of entries.
+     */
+    public final static int DEFAULT_SIZE = 256;
+
+    /**
+     * Strings longer than this are never cached.
+     */
+    public final static int MAX_LENGTH = 64;
+
+    private final String[] symbols;
+
+    private final int mask;
+
+    public SymbolTable()
+    {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new symbol table with the given number of entries. The size is rounded up to the next power of two.
+     *
+     * @param size  number of entries
+     */
+    public SymbolTable(int size)
+    {
+        if (size <= 0 || size > (1 << 30))
+        {
+            throw new IllegalArgumentException("invalid symbol table size " + size);
+        }
+
+        int capacity = Integer.highestOneBit(size);
+        if (capacity < size)
+        {
+            capacity <<= 1;
+        }
+        symbols = new String[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Returns the canonical String for the given characters.
+     *
+     * @param chars     character buffer
+     * @param offset    offset of the first character
+     * @param length    number of characters
+     * @return canonical String
+     */
+    String lookup(char[] chars, int offset, int length)
+    {
+        if (length > MAX_LENGTH)
+        {
+            return new String(chars, offset, length);
+        }
+
+        int end = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++)
+        {
+            hash = 31 * hash + chars[i];
+        }
+
+        int index = index(hash);
+        String symbol = symbols[index];
+        if (symbol != null && symbol.hashCode() == hash && symbol.length() == length)
+        {
+            int i = 0;
+            while (i < length && symbol.charAt(i) == chars[offset + i])
+            {
+                i++;
+            }
+            if (i == length)
+            {
+                return symbol;
+            }
+        }
+
+        symbol = new String(chars, offset, length);
+        symbols[index] = symbol;
+        return symbol;
+    }
+
+    /**
+     * Returns the canonical String for the given ASCII bytes.
+     *
+     * @param bytes     byte buffer only containing ASCII characters in the given range
+     * @param offset    offset of the first byte
+     * @param length    number of bytes
+     * @return canonical String
+     */
+    String lookupASCII(byte[] bytes, int offset, int length)
+    {
+        if (length > MAX_LENGTH)
+        {
+            return new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        }
+
+        int end = offset + length;
+        int hash = 0;
+        for (int i = offset; i < end; i++)
+        {
+            hash = 31 * hash + bytes[i];
+        }
+
+        int index = index(hash);
+        String symbol = symbols[index];
+        if (symbol != null && symbol.hashCode() == hash && symbol.length() == length)
+        {
+            int i = 0;
+            while (i < length && symbol.charAt(i) == bytes[offset + i])
+            {
+                i++;
+            }
+            if (i == length)
+            {
+                return symbol;
+            }
+        }
+
+        symbol = new String(bytes, offset, length, StandardCharsets.ISO_8859_1);
+        symbols[index] = symbol;
+        return symbol;
+    }
+
+    private int index(int hash)
+    {
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,172 @@
+package org.svenson.tokenize;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Scans ranges of the tokenizer window for the characters ending the hot loops of the {@link JSONTokenizer}.
+ * <p>
+ * This class is the scalar implementation looking at one character at a time. The optional
+ * <code>VectorTextScanner</code> from <code>src/main/java-vector</code> scans many characters per step. It is only
+ * compiled by the <code>vector</code> build profile and only loaded reflectively, so svenson builds and runs without
+ * the incubating <code>jdk.incubator.vector</code> module. If the class is present and the module is available at
+ * runtime (<code>--add-modules jdk.incubator.vector</code>), the {@link #INSTANCE} is a vector scanner. Setting the
+ * system property <code>svenson.vectorScanning</code> to <code>false</code> forces the scalar implementation.
+ *
+ * @author fforw at gmx dot de
+ *
+ */
+class TextScanner
+{
+    private static Logger log = LoggerFactory.getLogger(TextScanner.class);
+
+    /**
+     * Best scanner available at runtime.
+     */
+    final static TextScanner INSTANCE = create();
+
+    private static TextScanner create()
+    {
+        if (Boolean.parseBoolean(System.getProperty("svenson.vectorScanning", "true")))
+        {
+            try
+            {
+                TextScanner scanner = (TextScanner) Class.forName("org.svenson.tokenize.VectorTextScanner")
+                    .getDeclaredConstructor().newInstance();
+                log.debug("Using {}", scanner);
+                return scanner;
+            }
+            catch (Exception | LinkageError e)
+            {
+                // class not compiled in, module not available or no usable vector shapes
+                log.debug("Vector scanning not available: {}", e.toString());
+            }
+        }
+        return new TextScanner();
+    }
+
+    /**
+     * Returns the position of the first byte in the given range that is the given quote character, a backslash or
+     * an ASCII control character.
+     *
+     * @param bytes     UTF-8 encoded bytes
+     * @param from      first position to scan
+     * @param to        end of the range (exclusive)
+     * @param quote     quote character
+     * @return position of the first matching byte or <code>to</code>
+     */
+    int findStringSpecial(byte[] bytes, int from, int to, int quote)
+    {
+        for (int i = from; i < to; i++)
+        {
+            int c = bytes[i] & 0xFF;
+            if (c == quote || c == '\\' || c < 32)
+            {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Returns the position of the first char in the given range that is the given quote character, a backslash or
+     * a control character.
+     *
+     * @param chars     characters
+     * @param from      first position to scan
+     * @param to        end of the range (exclusive)
+     * @param quote     quote character
+     * @return position of the first matching char or <code>to</code>
+     */
+    int findStringSpecial(char[] chars, int from, int to, int quote)
+    {
+        for (int i = from; i < to; i++)
+        {
+            char c = chars[i];
+            if (c == quote || c == '\\' || c < 32)
+            {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Returns <code>true</code> if all bytes in the given range are ASCII.
+     *
+     * @param bytes     UTF-8 encoded bytes
+     * @param from      first position to check
+     * @param to        end of the range (exclusive)
+     * @return <code>true</code> if there are no bytes with the high bit set
+     */
+    boolean isASCII(byte[] bytes, int from, int to)
+    {
+        int high = 0;
+        for (int i = from; i < to; i++)
+        {
+            high |= bytes[i];
+        }
+        return high >= 0;
+    }
+
+    /**
+     * Returns the position of the first byte in the given range that is no white-space.
+     *
+     * @param bytes     UTF-8 encoded bytes
+     * @param from      first position to scan
+     * @param to        end of the range (exclusive)
+     * @return position of the first non-whitespace byte or <code>to</code>
+     */
+    int skipWhiteSpace(byte[] bytes, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (!isWhiteSpace(bytes[i]))
+            {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Returns the position of the first char in the given range that is no white-space.
+     *
+     * @param chars     characters
+     * @param from      first position to scan
+     * @param to        end of the range (exclusive)
+     * @return position of the first non-whitespace char or <code>to</code>
+     */
+    int skipWhiteSpace(char[] chars, int from, int to)
+    {
+        for (int i = from; i < to; i++)
+        {
+            if (!isWhiteSpace(chars[i]))
+            {
+                return i;
+            }
+        }
+        return to;
+    }
+
+    static boolean isWhiteSpace(int c)
+    {
+        switch (c)
+        {
+            case ' ':
+            case '\r':
+            case '\b':
+            case '\n':
+            case '\t':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "scalar text scanner";
+    }
+}
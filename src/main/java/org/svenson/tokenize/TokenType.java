@@ -1,7 +1,5 @@
 package org.svenson.tokenize;
 
-import java.math.BigDecimal;
-
 /**
  * Defines all possible token types and the possible content for each.
  * @author fforw at gmx dot de
@@ -16,12 +14,22 @@ public enum TokenType
     BRACKET_CLOSE("]"),
     COMMA(","),
     STRING(String.class),
-    INTEGER(Long.class),
-    DECIMAL(BigDecimal.class),
+    /**
+     * Integer number. The value type depends on the {@link NumberMode} of the tokenizer.
+     */
+    INTEGER(Number.class),
+    /**
+     * Decimal number. The value type depends on the {@link NumberMode} of the tokenizer.
+     */
+    DECIMAL(Number.class),
     TRUE(Boolean.TRUE),
     FALSE(Boolean.FALSE),
     NULL(null),
-    END(null);
+    END(null),
+    /**
+     * Returned by a {@link NonBlockingJSONTokenizer} if the input fed so far ends within the next token.
+     */
+    NEED_MORE_INPUT(null);
 
     private Object validContent;
 
@@ -0,0 +1,20 @@
+package org.svenson.tokenize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+/**
+ * Runs the {@link TextScannerTestCase} comparisons against the {@link VectorTextScanner}. Only compiled and run by the
+ * <code>vector</code> build profile.
+ */
+public class VectorTextScannerTestCase
+    extends TextScannerTestCase
+{
+    @Test
+    public void thatTheVectorScannerIsUsed()
+    {
+        assertThat(TextScanner.INSTANCE instanceof VectorTextScanner, is(true));
+    }
+}
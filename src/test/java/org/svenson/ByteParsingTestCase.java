@@ -0,0 +1,94 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.svenson.test.Bean;
+import org.svenson.tokenize.ByteArrayJSONSource;
+import org.svenson.tokenize.JSONTokenizer;
+import org.svenson.tokenize.Token;
+import org.svenson.tokenize.TokenType;
+
+public class ByteParsingTestCase
+{
+    private final static String JSON = "{\"foo\":\"abc äöüÄÖÜß アカエラミノウミウシ 😀\",\"bar\":42}";
+
+    @Test
+    public void thatParsingBytesWorks() throws Exception
+    {
+        byte[] bytes = JSON.getBytes("UTF-8");
+        assertBean(JSONParser.defaultJSONParser().parse(Bean.class, bytes));
+    }
+
+    @Test
+    public void thatParsingByteBuffersWorks() throws Exception
+    {
+        byte[] bytes = JSON.getBytes("UTF-8");
+
+        ByteBuffer heap = ByteBuffer.allocate(bytes.length + 10);
+        heap.put(new byte[5]).put(bytes).flip().position(5);
+        assertBean(JSONParser.defaultJSONParser().parse(Bean.class, heap));
+        assertThat(heap.position(), is(5));
+
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        assertBean(JSONParser.defaultJSONParser().parse(Bean.class, direct));
+        assertThat(direct.position(), is(0));
+    }
+
+    @Test
+    public void thatParsingInputStreamsWorks() throws Exception
+    {
+        byte[] bytes = JSON.getBytes("UTF-8");
+        assertBean(JSONParser.defaultJSONParser().parse(Bean.class, new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void thatLargeStreamsWork() throws Exception
+    {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 5000; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(',');
+            }
+            sb.append("\"äöü-").append(i).append("-😀\"");
+        }
+        sb.append("]");
+
+        List list = JSONParser.defaultJSONParser().parse(List.class, new ByteArrayInputStream(sb.toString().getBytes("UTF-8")));
+        assertThat(list.size(), is(5000));
+        assertThat((String) list.get(4999), is("äöü-4999-😀"));
+    }
+
+    @Test
+    public void thatMalformedUTF8IsReplaced() throws Exception
+    {
+        byte[] bytes = new byte[] { '"', 'a', (byte) 0xC3, 'b', (byte) 0xFF, '"' };
+        JSONTokenizer tokenizer = new JSONTokenizer(new ByteArrayJSONSource(bytes), false);
+        Token token = tokenizer.next();
+        assertThat(token.type(), is(TokenType.STRING));
+        assertThat((String) token.value(), is("a�b�"));
+    }
+
+    @Test
+    public void thatByteRangesWork() throws Exception
+    {
+        byte[] bytes = "xx{\"foo\":[1,2]}yy".getBytes("UTF-8");
+        Map map = JSONParser.defaultJSONParser().parse(Map.class, new ByteArrayJSONSource(bytes, 2, bytes.length - 4));
+        assertThat(((List) map.get("foo")).size(), is(2));
+    }
+
+    private void assertBean(Bean bean)
+    {
+        assertThat(bean.getFoo(), is("abc äöüÄÖÜß アカエラミノウミウシ 😀"));
+        assertThat(bean.getNotBar(), is(42));
+    }
+}
@@ -0,0 +1,121 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.svenson.PropertyValueBasedTypeMapperTestCase.Bar;
+import org.svenson.PropertyValueBasedTypeMapperTestCase.Foo;
+import org.svenson.test.Bean;
+import org.svenson.tokenize.StringJSONSource;
+
+public class JSONArrayIteratorTestCase
+{
+    @Test
+    public void thatElementsAreBoundToTheElementType()
+    {
+        JSONArrayIterator<Bean> iterator = new JSONParser().iterate(Bean.class,
+            new StringJSONSource(" [ {\"foo\":\"a\"}, {\"foo\":\"b\"} , null ] "));
+
+        List<Bean> beans = new ArrayList<Bean>();
+        while (iterator.hasNext())
+        {
+            beans.add(iterator.next());
+        }
+        assertThat(beans.size(), is(3));
+        assertThat(beans.get(0).getFoo(), is("a"));
+        assertThat(beans.get(1).getFoo(), is("b"));
+        assertThat(beans.get(2), is(nullValue()));
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void thatTypeHintsAndTypeMappersWork()
+    {
+        JSONParser parser = new JSONParser();
+        parser.addTypeHint("[][]", Bean.class);
+        JSONArrayIterator<Object> iterator = parser.iterate(Object.class,
+            new StringJSONSource("[[{\"foo\":\"a\"}], \"b\", 1]"));
+
+        List<Object> values = new ArrayList<Object>();
+        iterator.stream().forEach(values::add);
+        assertThat(((Bean) ((List) values.get(0)).get(0)).getFoo(), is("a"));
+        assertThat(values.get(1), is((Object) "b"));
+        assertThat(values.get(2), is((Object) 1L));
+
+        PropertyValueBasedTypeMapper mapper = new PropertyValueBasedTypeMapper();
+        mapper.setParsePathInfo("[]");
+        mapper.addFieldValueMapping("foo", Foo.class);
+        mapper.addFieldValueMapping("bar", Bar.class);
+        parser = new JSONParser();
+        parser.setTypeMapper(mapper);
+
+        iterator = parser.iterate(Object.class,
+            new StringJSONSource("[{\"type\":\"foo\",\"value\":\"aaa\"},{\"value\":\"bbb\",\"type\":\"bar\"}]"));
+        assertThat(((Foo) iterator.next()).getValue(), is("aaa"));
+        assertThat(((Bar) iterator.next()).getValue(), is("bbb"));
+        assertThat(iterator.hasNext(), is(false));
+    }
+
+    @Test
+    public void thatHugeArraysWork()
+    {
+        final int count = 500000;
+        InputStream in = new InputStream()
+        {
+            private int element = -1;
+
+            private byte[] buffer = "[".getBytes();
+
+            private int pos;
+
+            @Override
+            public int read()
+            {
+                if (pos == buffer.length)
+                {
+                    if (element == count)
+                    {
+                        return -1;
+                    }
+                    element++;
+                    String s = element == count ? "]" :
+                        (element > 0 ? "," : "") + "{\"id\":" + element + ",\"name\":\"element " + element + "\"}";
+                    buffer = s.getBytes();
+                    pos = 0;
+                }
+                return buffer[pos++];
+            }
+        };
+
+        JSONArrayIterator<Map> iterator = new JSONParser().iterate(Map.class, in);
+        int n = 0;
+        while (iterator.hasNext())
+        {
+            Map m = iterator.next();
+            assertThat(m.get("id"), is((Object) (long) n));
+            n++;
+        }
+        assertThat(n, is(count));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatNonArraysDontWork()
+    {
+        new JSONParser().iterate(Map.class, new StringJSONSource("{}")).hasNext();
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatMissingCommasDontWork()
+    {
+        JSONArrayIterator<Object> iterator = new JSONParser().iterate(Object.class, new StringJSONSource("[1 2]"));
+        iterator.next();
+        iterator.next();
+    }
+}
@@ -0,0 +1,81 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+import org.svenson.test.Bean;
+import org.svenson.tokenize.StringJSONSource;
+
+public class JSONDocumentIteratorTestCase
+{
+    @Test
+    public void thatNewlineDelimitedDocumentsWork() throws Exception
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++)
+        {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"line ").append(i).append("\"}\n");
+        }
+
+        JSONDocumentIterator<Map> iterator = new JSONParser().parseDocuments(Map.class,
+            new ByteArrayInputStream(sb.toString().getBytes("UTF-8")));
+        int count = 0;
+        while (iterator.hasNext())
+        {
+            Map m = iterator.next();
+            assertThat(m.get("id"), is((Object) (long) count));
+            assertThat(m.get("name"), is((Object) ("line " + count)));
+            count++;
+        }
+        iterator.close();
+        assertThat(count, is(10000));
+    }
+
+    @Test
+    public void thatConcatenatedValuesWork()
+    {
+        JSONDocumentIterator<Object> iterator = new JSONParser().parseDocuments(Object.class,
+            new StringJSONSource("{\"a\":1}[1,2] \"foo\" 42 null{}"));
+
+        List<Object> values = new ArrayList<Object>();
+        while (iterator.hasNext())
+        {
+            values.add(iterator.next());
+        }
+        assertThat(values.size(), is(6));
+        assertThat(((Map) values.get(0)).get("a"), is((Object) 1L));
+        assertThat(((List) values.get(1)).size(), is(2));
+        assertThat(values.get(2), is((Object) "foo"));
+        assertThat(values.get(3), is((Object) 42L));
+        assertThat(values.get(4), is(nullValue()));
+        assertThat(((Map) values.get(5)).size(), is(0));
+    }
+
+    @Test
+    public void thatStreamsWork()
+    {
+        JSONDocumentIterator<Bean> iterator = new JSONParser().parseDocuments(Bean.class,
+            new StringJSONSource("{\"foo\":\"a\"}\n{\"foo\":\"b\"}\n\n"));
+
+        List<Bean> beans = new ArrayList<Bean>();
+        iterator.stream().forEach(beans::add);
+        assertThat(beans.size(), is(2));
+        assertThat(beans.get(1).getFoo(), is("b"));
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void thatReadingBeyondTheEndFails()
+    {
+        JSONDocumentIterator<Map> iterator = new JSONParser().parseDocuments(Map.class, new StringJSONSource(" {} "));
+        iterator.next();
+        iterator.next();
+    }
+}
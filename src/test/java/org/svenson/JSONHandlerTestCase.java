@@ -0,0 +1,149 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.svenson.tokenize.NumberMode;
+import org.svenson.tokenize.StringJSONSource;
+
+public class JSONHandlerTestCase
+{
+    private static class RecordingHandler
+        implements JSONHandler
+    {
+        private final List<String> events = new ArrayList<String>();
+
+        public void startObject()
+        {
+            events.add("{");
+        }
+
+        public void key(String key)
+        {
+            events.add("key:" + key);
+        }
+
+        public void endObject()
+        {
+            events.add("}");
+        }
+
+        public void startArray()
+        {
+            events.add("[");
+        }
+
+        public void endArray()
+        {
+            events.add("]");
+        }
+
+        public void stringValue(String value)
+        {
+            events.add("string:" + value);
+        }
+
+        public void longValue(long value)
+        {
+            events.add("long:" + value);
+        }
+
+        public void doubleValue(double value)
+        {
+            events.add("double:" + value);
+        }
+
+        public void numberValue(BigDecimal value)
+        {
+            events.add(value.getClass().getSimpleName() + ":" + value);
+        }
+
+        public void booleanValue(boolean value)
+        {
+            events.add("boolean:" + value);
+        }
+
+        public void nullValue()
+        {
+            events.add("null");
+        }
+    }
+
+    @Test
+    public void thatEventsAreReportedInDocumentOrder()
+    {
+        RecordingHandler handler = new RecordingHandler();
+        new JSONParser().parse(new StringJSONSource(
+            "{\"a\":[1,2.5,\"x\",true,false,null,{},[]],\"b\":{\"c\":92233720368547758070},\"d\":[[[]]]}"), handler);
+
+        assertThat(handler.events, is(Arrays.asList("{", "key:a", "[", "long:1", "BigDecimal:2.5", "string:x",
+            "boolean:true", "boolean:false", "null", "{", "}", "[", "]", "]", "key:b", "{", "key:c",
+            "BigDecimal:92233720368547758070", "}", "key:d", "[", "[", "[", "]", "]", "]", "}")));
+    }
+
+    @Test
+    public void thatDecimalsAreReportedAsDoublesInDoubleMode()
+    {
+        RecordingHandler handler = new RecordingHandler();
+        JSONParser parser = new JSONParser();
+        parser.setNumberMode(NumberMode.DOUBLE);
+        parser.parse("[0.5,-3,1e2,92233720368547758070,1e400]", handler);
+
+        assertThat(handler.events, is(Arrays.asList("[", "double:0.5", "long:-3", "double:100.0",
+            "BigDecimal:92233720368547758070", "BigDecimal:1E+400", "]")));
+    }
+
+    @Test
+    public void thatRootValuesAndDeepNestingWork()
+    {
+        RecordingHandler handler = new RecordingHandler();
+        new JSONParser().parse("\"foo\"", handler);
+        assertThat(handler.events, is(Arrays.asList("string:foo")));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+        {
+            sb.append("{\"a\":[");
+        }
+        for (int i = 0; i < 1000; i++)
+        {
+            sb.append("]}");
+        }
+
+        final int[] counts = new int[2];
+        new JSONParser().parse(sb.toString(), new AbstractJSONHandler()
+        {
+            @Override
+            public void endObject()
+            {
+                counts[0]++;
+            }
+
+            @Override
+            public void endArray()
+            {
+                counts[1]++;
+            }
+        });
+        assertThat(counts[0], is(1000));
+        assertThat(counts[1], is(1000));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatMissingCommasDontWork()
+    {
+        new JSONParser().parse("{\"a\":1 \"b\":2}", new RecordingHandler());
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatMismatchedBracketsDontWork()
+    {
+        new JSONParser().parse("{\"a\":[1}", new RecordingHandler());
+    }
+}
@@ -0,0 +1,173 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.svenson.test.Bean;
+import org.svenson.tokenize.ByteArrayJSONSource;
+
+public class JSONOffsetIndexTestCase
+{
+    private static String createJSON()
+    {
+        StringBuilder sb = new StringBuilder("{\"meta\":{\"items\":\"no\"},\"data\":{\"items\":[");
+        for (int i = 0; i < 1000; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(",\n  ");
+            }
+            sb.append("{\"foo\":\"äöü-[").append(i).append("]\\\"\",\"bar\":").append(i).append("}");
+        }
+        sb.append("]},\"after\":[1,2]}");
+        return sb.toString();
+    }
+
+    @Test
+    public void thatElementsCanBeParsedDirectly() throws Exception
+    {
+        File file = File.createTempFile("svenson", ".json");
+        File indexFile = JSONOffsetIndex.indexFile(file.toPath()).toFile();
+        try
+        {
+            FileUtils.writeStringToFile(file, createJSON(), "UTF-8");
+
+            JSONParser parser = new JSONParser();
+            JSONOffsetIndex index = JSONOffsetIndex.forFile(parser, file.toPath(), ".data.items");
+            assertThat(index.size(), is(1000));
+            assertThat(index.getLength(), is(file.length()));
+            assertThat(indexFile.exists(), is(true));
+
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try
+            {
+                for (int n : new int[] { 999, 0, 500 })
+                {
+                    Bean bean = parser.parseElement(Bean.class, channel, index, n);
+                    assertThat(bean.getFoo(), is("äöü-[" + n + "]\""));
+                    assertThat(bean.getNotBar(), is(n));
+                }
+            }
+            finally
+            {
+                channel.close();
+            }
+
+            // the persisted index is used as long as it matches the file
+            JSONOffsetIndex loaded = JSONOffsetIndex.forFile(parser, file.toPath(), ".data.items");
+            assertThat(loaded.size(), is(1000));
+            assertThat(loaded.getStart(500), is(index.getStart(500)));
+            assertThat(loaded.getEnd(500), is(index.getEnd(500)));
+
+            // the index of another path replaces it
+            JSONOffsetIndex other = JSONOffsetIndex.forFile(parser, file.toPath(), ".after");
+            assertThat(other.size(), is(2));
+            assertThat(JSONOffsetIndex.load(indexFile.toPath()).getPath(), is(".after"));
+        }
+        finally
+        {
+            file.delete();
+            indexFile.delete();
+        }
+    }
+
+    @Test
+    public void thatIndicesCanBeWrittenAndRead() throws Exception
+    {
+        JSONOffsetIndex index = JSONOffsetIndex.build(new JSONParser(),
+            new ByteArrayInputStream(" [1, \"a\", [2,3] ,{}]".getBytes("UTF-8")), "");
+        assertThat(index.size(), is(4));
+        assertThat(index.getStart(2), is(9L));
+        assertThat(index.getEnd(2), is(15L));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.write(out);
+        JSONOffsetIndex read = JSONOffsetIndex.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(read.size(), is(4));
+        assertThat(read.getPath(), is(""));
+        assertThat(read.getLength(), is(20L));
+        for (int i = 0; i < 4; i++)
+        {
+            assertThat(read.getStart(i), is(index.getStart(i)));
+            assertThat(read.getEnd(i), is(index.getEnd(i)));
+        }
+    }
+
+    @Test
+    public void thatOffsetsAreByteOffsets() throws Exception
+    {
+        byte[] json = "[\"äöü\",\"€\",1]".getBytes(StandardCharsets.UTF_8);
+        JSONOffsetIndex index = JSONOffsetIndex.build(new JSONParser(), new ByteArrayJSONSource(json), "");
+        assertThat(index.size(), is(3));
+        assertThat(index.getStart(1), is(10L));
+        assertThat(index.getEnd(1), is(15L));
+        assertThat(index.getStart(2), is(16L));
+        assertThat(index.getLength(), is((long) json.length));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatHugeElementsFail() throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(0x5356494E);
+        data.writeInt(1);
+        data.writeUTF("");
+        data.writeLong(3L << 30);
+        data.writeInt(1);
+        data.writeLong(1L);
+        data.writeLong((3L << 30) - 1);
+        data.flush();
+        JSONOffsetIndex index = JSONOffsetIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+        File file = File.createTempFile("svenson", ".json");
+        try
+        {
+            FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            try
+            {
+                new JSONParser().parseElement(Object.class, channel, index, 0);
+            }
+            finally
+            {
+                channel.close();
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void thatEmptyArraysWork() throws Exception
+    {
+        JSONOffsetIndex index = JSONOffsetIndex.build(new JSONParser(),
+            new ByteArrayInputStream("{\"a\":[ ]}".getBytes("UTF-8")), ".a");
+        assertThat(index.size(), is(0));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatMissingArraysFail() throws Exception
+    {
+        JSONOffsetIndex.build(new JSONParser(), new ByteArrayInputStream("{\"a\":{\"b\":1}}".getBytes("UTF-8")), ".a.c");
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void thatInvalidElementIndicesFail() throws Exception
+    {
+        JSONOffsetIndex index = JSONOffsetIndex.build(new JSONParser(),
+            new ByteArrayInputStream("[1]".getBytes("UTF-8")), "");
+        index.getStart(1);
+    }
+}
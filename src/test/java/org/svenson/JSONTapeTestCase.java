@@ -0,0 +1,125 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import org.junit.Test;
+import org.svenson.tokenize.NumberMode;
+import org.svenson.tokenize.StringJSONSource;
+import org.svenson.tokenize.TokenType;
+
+public class JSONTapeTestCase
+{
+    private final static String JSON = "{\"id\":\"doc\",\"list\":[1,-2.5,0.1,\"äöü\",true,false,null,{},[]]," +
+        "\"nested\":{\"big\":92233720368547758070,\"pi\":3.14159265358979323846264338327950288,\"x\":-7}," +
+        "\"last\":\"\"}";
+
+    @Test
+    public void thatNavigationWorks()
+    {
+        JSONTape tape = new JSONParser().parseTape(JSON);
+        assertThat(tape.getBuffer().isDirect(), is(true));
+
+        JSONTapeNode root = tape.root();
+        assertThat(root.getType(), is(TokenType.BRACE_OPEN));
+        assertThat(root.size(), is(4));
+        assertThat(root.keys(), is(Arrays.asList("id", "list", "nested", "last")));
+        assertThat(root.get("id").stringValue(), is("doc"));
+        assertThat(root.get("last").stringValue(), is(""));
+        assertThat(root.get("missing"), is(nullValue()));
+
+        JSONTapeNode list = root.get("list");
+        assertThat(list.size(), is(9));
+        assertThat(list.get(0).longValue(), is(1L));
+        assertThat(list.get(1).doubleValue(), is(-2.5));
+        assertThat(list.get(2).numberValue(), is((Number) 0.1));
+        assertThat(list.get(3).stringValue(), is("äöü"));
+        assertThat(list.get(4).booleanValue(), is(true));
+        assertThat(list.get(5).booleanValue(), is(false));
+        assertThat(list.get(6).isNull(), is(true));
+        assertThat(list.get(7).size(), is(0));
+        assertThat(list.get(8).getType(), is(TokenType.BRACKET_OPEN));
+        assertThat(list.elements().size(), is(9));
+
+        JSONTapeNode nested = root.get("nested");
+        assertThat(nested.get("big").numberValue(), is((Number) new BigDecimal("92233720368547758070")));
+        assertThat(nested.get("pi").numberValue(),
+            is((Number) new BigDecimal("3.14159265358979323846264338327950288")));
+        assertThat(nested.get("x").longValue(), is(-7L));
+    }
+
+    @Test
+    public void thatBigIntegersWorkInDoubleMode()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setNumberMode(NumberMode.DOUBLE);
+        JSONTape tape = parser.parseTape("[92233720368547758070, 1.5, 1e400]");
+
+        JSONTapeNode root = tape.root();
+        assertThat(root.get(0).numberValue(), is((Number) new BigDecimal("92233720368547758070")));
+        assertThat(root.get(1).doubleValue(), is(1.5));
+        assertThat(root.get(2).numberValue(), is((Number) new BigDecimal("1e400")));
+    }
+
+    @Test
+    public void thatBigDecimalsAreRecorded()
+    {
+        JSONTapeBuilder builder = new JSONTapeBuilder();
+        builder.startArray();
+        builder.numberValue(new BigDecimal("-92233720368547758070"));
+        builder.numberValue(new BigDecimal("0.25"));
+        builder.endArray();
+
+        JSONTapeNode root = builder.build(ByteBuffer::allocate).root();
+        assertThat(root.get(0).numberValue(), is((Number) new BigDecimal("-92233720368547758070")));
+        assertThat(root.get(1).doubleValue(), is(0.25));
+    }
+
+    @Test
+    public void thatAllocatorsWork()
+    {
+        final ByteBuffer pooled = ByteBuffer.allocate(4096);
+        JSONTape tape = new JSONParser().parseTape(new StringJSONSource(JSON), new IntFunction<ByteBuffer>()
+        {
+            public ByteBuffer apply(int size)
+            {
+                return pooled;
+            }
+        });
+        assertThat(tape.getBuffer() == pooled, is(true));
+        assertThat(tape.size() < 4096, is(true));
+        assertThat(tape.root().get("list").get(3).stringValue(), is("äöü"));
+    }
+
+    @Test
+    public void thatLargeArraysWork()
+    {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 100000; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(',');
+            }
+            sb.append("{\"n\":").append(i).append('}');
+        }
+        sb.append(']');
+
+        JSONTapeNode root = new JSONParser().parseTape(sb.toString()).root();
+        assertThat(root.size(), is(100000));
+        assertThat(root.get(99999).get("n").longValue(), is(99999L));
+        assertThat(new JSONParser().parseTape(" \"foo\" ").root().stringValue(), is("foo"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thatTypedGettersCheckTheType()
+    {
+        new JSONParser().parseTape(JSON).root().get("id").longValue();
+    }
+}
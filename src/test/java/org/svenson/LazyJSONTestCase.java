@@ -0,0 +1,74 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class LazyJSONTestCase
+{
+    private final static String JSON = "{ \"id\" : \"doc\", \"broken\":{\"a\":[1 2]}, \"nested\":{\"list\":[ 1, \"two\", " +
+        "{\"three\":3}, [], null ], \"empty\":{}}, \"flag\":true, \"n\":-2.5 }";
+
+    @Test
+    public void thatValuesAreDecodedOnAccess()
+    {
+        LazyJSONObject o = (LazyJSONObject) new JSONParser().parseLazy(JSON);
+
+        assertThat(o.size(), is(5));
+        assertThat(o.isDecoded("id"), is(false));
+        assertThat(o.get("id"), is((Object) "doc"));
+        assertThat(o.isDecoded("id"), is(true));
+        assertThat(o.get("flag"), is((Object) true));
+        assertThat(o.get("n").toString(), is("-2.5"));
+        assertThat(o.get("missing"), is(nullValue()));
+        assertThat(o.isDecoded("broken"), is(false));
+
+        Map nested = (Map) o.get("nested");
+        assertThat(nested.get("list") == nested.get("list"), is(true));
+
+        LazyJSONArray list = (LazyJSONArray) nested.get("list");
+        assertThat(list.size(), is(5));
+        assertThat(list.isDecoded(1), is(false));
+        assertThat(list.get(1), is((Object) "two"));
+        assertThat(((Map) list.get(2)).get("three"), is((Object) 3L));
+        assertThat(((List) list.get(3)).size(), is(0));
+        assertThat(list.get(4), is(nullValue()));
+        assertThat(((Map) nested.get("empty")).size(), is(0));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatErrorsAreDetectedOnAccess()
+    {
+        Map o = (Map) new JSONParser().parseLazy(JSON.getBytes());
+        ((List) ((Map) o.get("broken")).get("a")).get(0);
+    }
+
+    @Test
+    public void thatLazyValuesAreMapsAndLists() throws Exception
+    {
+        String json = "{\"a\":[1,{\"b\":\"ä\"}],\"c\":{}}";
+        Object lazy = new JSONParser().parseLazy(json.getBytes("UTF-8"));
+        Object eager = new JSONParser().parse(json);
+        assertThat(lazy.equals(eager), is(true));
+        assertThat(eager.equals(lazy), is(true));
+
+        Map<String, Object> m = (Map<String, Object>) lazy;
+        m.put("d", "x");
+        m.remove("a");
+        assertThat(m.keySet().toString(), is("[c, d]"));
+
+        List l = (List) new JSONParser().parseLazy(" [1, 2, 3] ");
+        l.remove(0);
+        l.add(4L);
+        assertThat(l, is((Object) Arrays.asList(2L, 3L, 4L)));
+        assertThat(new JSONParser().parseLazy("42"), is((Object) 42L));
+        assertThat(new HashMap<String, Object>(m).size(), is(2));
+    }
+}
@@ -0,0 +1,136 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.svenson.tokenize.NumberMode;
+
+public class NumberModeTestCase
+{
+    @Test
+    public void thatBigDecimalModeIsTheDefault()
+    {
+        JSONParser parser = new JSONParser();
+        assertThat(parser.getNumberMode(), is(NumberMode.BIG_DECIMAL));
+
+        Map m = parser.parse(Map.class, "{\"a\":1,\"b\":1.5}");
+        assertThat(m.get("a"), is((Object) 1L));
+        assertThat(m.get("b"), is((Object) new BigDecimal("1.5")));
+    }
+
+    @Test
+    public void thatDoubleModeProducesCompactValues()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setNumberMode(NumberMode.DOUBLE);
+
+        List l = parser.parse(List.class, "[1,-2147483649,92233720368547758070,1.5,-0.0,2e3,1e400,-1e-400,0e-400]");
+        assertThat(l.get(0), is((Object) 1));
+        assertThat(l.get(1), is((Object) (-2147483649L)));
+        assertThat(l.get(2), is((Object) new BigInteger("92233720368547758070")));
+        assertThat(l.get(3), is((Object) 1.5));
+        assertThat(l.get(4), is((Object) (-0.0)));
+        assertThat(l.get(5), is((Object) 2000.0));
+        assertThat(l.get(6), is((Object) new BigDecimal("1e400")));
+        assertThat(l.get(7), is((Object) new BigDecimal("-1e-400")));
+        assertThat(l.get(8), is((Object) 0.0));
+
+        assertThat(new JSONParser(parser).getNumberMode(), is(NumberMode.DOUBLE));
+    }
+
+    @Test
+    public void thatDoubleModeParsesCorrectlyRounded()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setNumberMode(NumberMode.DOUBLE);
+
+        String[] numbers = new String[] { "0.1", "0.3", "123.456", "9007199254740993.0", "1.7976931348623157e308",
+            "4.9e-324", "2.2250738585072014E-308", "0.000001", "1234567890123456789e-5", "3.141592653589793" };
+        for (String number : numbers)
+        {
+            assertThat(number, parseDouble(parser, number), is(Double.parseDouble(number)));
+        }
+
+        Random r = new Random(4711);
+        for (int i = 0; i < 10000; i++)
+        {
+            double d = Double.longBitsToDouble(r.nextLong());
+            if (Double.isNaN(d) || Double.isInfinite(d))
+            {
+                continue;
+            }
+            String json = String.valueOf(d);
+            assertThat(json, parseDouble(parser, json), is(d));
+
+            String decimal = BigDecimal.valueOf(r.nextInt(1000000), r.nextInt(12)).toPlainString() + "e0";
+            assertThat(decimal, parseDouble(parser, decimal), is(Double.parseDouble(decimal)));
+        }
+    }
+
+    private double parseDouble(JSONParser parser, String number)
+    {
+        return (Double) parser.parse(List.class, "[" + number + "]").get(0);
+    }
+
+    @Test
+    public void thatNumbersAreConvertedToProperties()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setNumberMode(NumberMode.DOUBLE);
+        Bean bean = parser.parse(Bean.class, "{\"intValue\":42,\"longValue\":17,\"doubleValue\":3}");
+        assertThat(bean.getIntValue(), is(42));
+        assertThat(bean.getLongValue(), is(17L));
+        assertThat(bean.getDoubleValue(), is(3.0));
+
+        bean = new JSONParser().parse(Bean.class, "{\"intValue\":42,\"longValue\":17,\"doubleValue\":0.5}");
+        assertThat(bean.getIntValue(), is(42));
+        assertThat(bean.getLongValue(), is(17L));
+        assertThat(bean.getDoubleValue(), is(0.5));
+    }
+
+    public static class Bean
+    {
+        private int intValue;
+
+        private long longValue;
+
+        private double doubleValue;
+
+        public int getIntValue()
+        {
+            return intValue;
+        }
+
+        public void setIntValue(int intValue)
+        {
+            this.intValue = intValue;
+        }
+
+        public long getLongValue()
+        {
+            return longValue;
+        }
+
+        public void setLongValue(long longValue)
+        {
+            this.longValue = longValue;
+        }
+
+        public double getDoubleValue()
+        {
+            return doubleValue;
+        }
+
+        public void setDoubleValue(double doubleValue)
+        {
+            this.doubleValue = doubleValue;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.svenson.matcher.PathMatcher;
+import org.svenson.test.Bean;
+
+public class ParallelArrayParserTestCase
+{
+    private static byte[] createArray(int count)
+    {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < count; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(",\n ");
+            }
+            sb.append("{\"foo\":\"x,]}\\\"[").append(i).append("\\\\\",\"bar\":").append(i)
+                .append(",\"inner\":[{\"bar\":1},{}],\"inner2\":{\"k\":{\"bar\":2}}}");
+        }
+        sb.append("]");
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void thatElementsAreParsedInOrder()
+    {
+        byte[] json = createArray(20000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try
+        {
+            List<Bean> beans = new JSONParser().parseArrayParallel(Bean.class, json, "", pool);
+            assertThat(beans.size(), is(20000));
+            for (int i = 0; i < beans.size(); i++)
+            {
+                assertThat(beans.get(i).getFoo(), is("x,]}\"[" + i + "\\"));
+                assertThat(beans.get(i).getNotBar(), is(i));
+                assertThat(beans.get(i).getInner().size(), is(2));
+                assertThat(beans.get(i).getInner2().get("k").getBar(), is(2));
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void thatArraysAtPathsWork()
+    {
+        String array = new String(createArray(5000), StandardCharsets.UTF_8);
+        byte[] json = ("{\"before\":[1,{\"items\":2}],\"data\":{\"x\":\"[\",\"items\":" + array + ",\"y\":1},\"z\":0}")
+            .getBytes(StandardCharsets.UTF_8);
+
+        List<Map> maps = new JSONParser().parseArrayParallel(Map.class, json, ".data.items", ForkJoinPool.commonPool());
+        assertThat(maps.size(), is(5000));
+        assertThat(maps.get(4999).get("bar"), is((Object) 4999L));
+    }
+
+    @Test
+    public void thatPathConsumersAreNotCalledByTheWorkers()
+    {
+        final AtomicInteger consumed = new AtomicInteger();
+        JSONParser parser = new JSONParser();
+        parser.addPathConsumer(new PathMatcher()
+        {
+            public boolean matches(String parsePath, Class typeHint)
+            {
+                return true;
+            }
+        }, value -> consumed.incrementAndGet());
+
+        List<Map> maps = parser.parseArrayParallel(Map.class, createArray(5000));
+        assertThat(maps.size(), is(5000));
+        assertThat(((List) maps.get(4999).get("inner")).size(), is(2));
+        assertThat(consumed.get(), is(0));
+    }
+
+    @Test
+    public void thatSmallArraysWork()
+    {
+        JSONParser parser = new JSONParser();
+        assertThat(parser.parseArrayParallel(Object.class, "  [ ] ".getBytes(StandardCharsets.UTF_8)).size(), is(0));
+
+        List<Object> values = parser.parseArrayParallel(Object.class, "[1,\"a\",null,[2]]".getBytes(StandardCharsets.UTF_8));
+        assertThat(values.size(), is(4));
+        assertThat(values.get(1), is((Object) "a"));
+        assertThat(((List) values.get(3)).size(), is(1));
+    }
+
+    @Test
+    public void thatErrorsReportOffsets()
+    {
+        byte[] json = createArray(20000);
+        int broken = json.length / 2;
+        while (json[broken] != ':')
+        {
+            broken++;
+        }
+        json[broken] = ';';
+
+        try
+        {
+            new JSONParser().parseArrayParallel(Map.class, json);
+            throw new AssertionError("should fail");
+        }
+        catch (JSONParseException e)
+        {
+            assertThat(e.getOffset(), is((long) broken + 1));
+        }
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatTrailingCommasFail()
+    {
+        new JSONParser().parseArrayParallel(Object.class, "[1,2,]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatMissingPathsFail()
+    {
+        new JSONParser().parseArrayParallel(Object.class, "{\"a\":[1]}".getBytes(StandardCharsets.UTF_8), ".b",
+            ForkJoinPool.commonPool());
+    }
+}
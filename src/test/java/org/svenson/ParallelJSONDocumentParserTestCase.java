@@ -0,0 +1,174 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.svenson.matcher.PathMatcher;
+
+public class ParallelJSONDocumentParserTestCase
+{
+    private final static int COUNT = 20000;
+
+    private ByteArrayInputStream lines(String brokenLine) throws Exception
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < COUNT; i++)
+        {
+            if (i == COUNT / 2 && brokenLine != null)
+            {
+                sb.append(brokenLine).append('\n');
+            }
+            sb.append("{\"id\":").append(i).append(",\"name\":\"line ").append(i).append("\"}\n");
+        }
+        return new ByteArrayInputStream(sb.toString().getBytes("UTF-8"));
+    }
+
+    @Test
+    public void thatDocumentsAreDeliveredInOrder() throws Exception
+    {
+        final List<Long> ids = new ArrayList<Long>();
+        ParallelJSONDocumentParser parser = new ParallelJSONDocumentParser(new JSONParser(), 4);
+        parser.setChunkSize(1000);
+        try
+        {
+            parser.parse(Map.class, lines(null), m -> ids.add((Long) m.get("id")));
+        }
+        finally
+        {
+            parser.close();
+        }
+
+        assertThat(ids.size(), is(COUNT));
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertThat(ids.get(i), is((long) i));
+        }
+    }
+
+    @Test
+    public void thatPathConsumersAreNotCalledByTheWorkers() throws Exception
+    {
+        final AtomicInteger consumed = new AtomicInteger();
+        JSONParser jsonParser = new JSONParser();
+        jsonParser.addPathConsumer(new PathMatcher()
+        {
+            public boolean matches(String parsePath, Class typeHint)
+            {
+                return true;
+            }
+        }, value -> consumed.incrementAndGet());
+
+        final List<Map> documents = new ArrayList<Map>();
+        ParallelJSONDocumentParser parser = new ParallelJSONDocumentParser(jsonParser, 4);
+        parser.setChunkSize(1000);
+        try
+        {
+            parser.parse(Map.class, new ByteArrayInputStream("{\"a\":[1,2]}\n{\"a\":[3]}".getBytes("UTF-8")),
+                documents::add);
+        }
+        finally
+        {
+            parser.close();
+        }
+
+        assertThat(documents.size(), is(2));
+        assertThat(((List) documents.get(0).get("a")).size(), is(2));
+        assertThat(consumed.get(), is(0));
+    }
+
+    @Test
+    public void thatUnorderedDeliveryWorks() throws Exception
+    {
+        final List<Long> ids = new ArrayList<Long>();
+        ParallelJSONDocumentParser parser = new ParallelJSONDocumentParser(new JSONParser(), 4);
+        parser.setChunkSize(1000);
+        parser.setOrdered(false);
+        parser.setMaxChunksInFlight(3);
+        try
+        {
+            parser.parse(Map.class, lines(null), m -> ids.add((Long) m.get("id")));
+        }
+        finally
+        {
+            parser.close();
+        }
+
+        Collections.sort(ids);
+        assertThat(ids.size(), is(COUNT));
+        for (int i = 0; i < COUNT; i++)
+        {
+            assertThat(ids.get(i), is((long) i));
+        }
+    }
+
+    @Test
+    public void thatLinesLongerThanTheChunkSizeWork() throws Exception
+    {
+        final List<Map> documents = new ArrayList<Map>();
+        ParallelJSONDocumentParser parser = new ParallelJSONDocumentParser(new JSONParser(), 2);
+        parser.setChunkSize(7);
+        try
+        {
+            parser.parse(Map.class, new ByteArrayInputStream(
+                "{\"value\":\"a rather long line\"}\n{}\n{\"value\":\"last line without newline\"}".getBytes("UTF-8")),
+                documents::add);
+        }
+        finally
+        {
+            parser.close();
+        }
+
+        assertThat(documents.size(), is(3));
+        assertThat(documents.get(0).get("value"), is((Object) "a rather long line"));
+        assertThat(documents.get(2).get("value"), is((Object) "last line without newline"));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatErrorsArePropagated() throws Exception
+    {
+        ParallelJSONDocumentParser parser = new ParallelJSONDocumentParser(new JSONParser(), 4);
+        parser.setChunkSize(1000);
+        try
+        {
+            parser.parse(Map.class, lines("{\"id\":"), m -> {});
+        }
+        finally
+        {
+            parser.close();
+        }
+    }
+
+    @Test
+    public void thatErrorsReportTheByteOffset() throws Exception
+    {
+        long lineStart = 0;
+        for (int i = 0; i < COUNT / 2; i++)
+        {
+            lineStart += ("{\"id\":" + i + ",\"name\":\"line " + i + "\"}\n").length();
+        }
+
+        ParallelJSONDocumentParser parser = new ParallelJSONDocumentParser(new JSONParser(), 4);
+        parser.setChunkSize(1000);
+        try
+        {
+            parser.parse(Map.class, lines("{\"id\":x}"), m -> {});
+            throw new AssertionError("should fail");
+        }
+        catch (JSONParseException e)
+        {
+            assertThat(e.getOffset() >= lineStart && e.getOffset() <= lineStart + 8, is(true));
+        }
+        finally
+        {
+            parser.close();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.svenson.PropertyValueBasedTypeMapperTestCase.Bar;
+import org.svenson.PropertyValueBasedTypeMapperTestCase.Foo;
+import org.svenson.matcher.PrefixPathMatcher;
+
+public class PathConsumerTestCase
+{
+    @Test
+    public void thatElementsAreHandedToTheConsumer()
+    {
+        String json = "{\"total_rows\":3,\"rows\":[" +
+            "{\"type\":\"foo\",\"value\":\"aaa\"},{\"type\":\"bar\",\"value\":\"bbb\"},{\"value\":\"ccc\",\"type\":\"bar\"}]," +
+            "\"offset\":0}";
+
+        JSONParser parser = new JSONParser();
+        PropertyValueBasedTypeMapper mapper = new PropertyValueBasedTypeMapper();
+        mapper.setParsePathInfo(".rows[]");
+        mapper.addFieldValueMapping("foo", Foo.class);
+        mapper.addFieldValueMapping("bar", Bar.class);
+        parser.setTypeMapper(mapper);
+
+        final List<Foo> rows = new ArrayList<Foo>();
+        parser.addPathConsumer(".rows[]", (Foo foo) -> rows.add(foo));
+
+        Map m = parser.parse(HashMap.class, json);
+        assertThat(m.get("total_rows"), is((Object) 3L));
+        assertThat(m.get("offset"), is((Object) 0L));
+        assertThat(((List) m.get("rows")).size(), is(0));
+
+        assertThat(rows.size(), is(3));
+        assertThat(rows.get(0).getClass().equals(Foo.class), is(true));
+        assertThat(rows.get(0).getValue(), is("aaa"));
+        assertThat(rows.get(1) instanceof Bar, is(true));
+        assertThat(rows.get(2).getValue(), is("ccc"));
+    }
+
+    @Test
+    public void thatNestedArraysWork()
+    {
+        final List<Object> values = new ArrayList<Object>();
+        JSONParser parser = new JSONParser();
+        parser.addPathConsumer(new PrefixPathMatcher(".a[][]"), values::add);
+
+        Map m = (Map) parser.parse("{\"a\":[[1,2],[],[3]],\"b\":[4]}");
+        assertThat(values.size(), is(3));
+        assertThat(values.get(2), is((Object) 3L));
+        assertThat(((List) m.get("a")).size(), is(3));
+        assertThat(((List) m.get("b")).size(), is(1));
+    }
+}
@@ -0,0 +1,116 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.svenson.test.Bean;
+import org.svenson.tokenize.InputStreamSource;
+
+public class ProjectionTestCase
+{
+    private final static String JSON = "{\"id\":12,\"skipped\":{\"a\":[1,\"x\\\"]\",{\"b\":null}],\"c\":\"}\"}," +
+        "\"items\":[{\"name\":\"a\",\"price\":1.5,\"tags\":[\"t\"]},{\"price\":2,\"name\":\"b\"}]," +
+        "\"nested\":{\"keep\":{\"x\":1,\"y\":[2]},\"drop\":true},\"last\":\"z\"}";
+
+    @Test
+    public void thatOnlyProjectedPathsAreBound()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setProjection(Arrays.asList(".id", ".items[].name", ".nested.keep"));
+
+        Map m = parser.parse(HashMap.class, JSON);
+        assertThat(m.size(), is(3));
+        assertThat(m.get("id"), is((Object) 12L));
+
+        List<Map> items = (List<Map>) m.get("items");
+        assertThat(items.size(), is(2));
+        assertThat(items.get(0).size(), is(1));
+        assertThat(items.get(0).get("name"), is((Object) "a"));
+        assertThat(items.get(1).size(), is(1));
+        assertThat(items.get(1).get("name"), is((Object) "b"));
+
+        Map nested = (Map) m.get("nested");
+        assertThat(nested.size(), is(1));
+        Map keep = (Map) nested.get("keep");
+        assertThat(keep.get("x"), is((Object) 1L));
+        assertThat(((List) keep.get("y")).get(0), is((Object) 2L));
+    }
+
+    @Test
+    public void thatProjectionWorksWithBeans()
+    {
+        JSONParser parser = new JSONParser();
+        parser.addProjection(".foo");
+
+        Bean bean = parser.parse(Bean.class, "{\"bar\":42,\"notThere\":{\"x\":[]},\"foo\":\"a\"}");
+        assertThat(bean.getFoo(), is("a"));
+        assertThat(bean.getNotBar(), is(0));
+    }
+
+    @Test
+    public void thatNoProjectionBindsEverything()
+    {
+        JSONParser parser = new JSONParser();
+        parser.addProjection(".id");
+        parser.setProjection(null);
+
+        Map m = parser.parse(HashMap.class, JSON);
+        assertThat(m.size(), is(5));
+    }
+
+    @Test
+    public void thatParsingStopsOnceTheProjectionIsBound() throws Exception
+    {
+        JSONParser parser = new JSONParser();
+        parser.setProjection(Arrays.asList("._id", "._rev", ".meta.type"));
+        parser.setTerminateEarly(true);
+
+        final boolean[] closed = new boolean[1];
+        final int[] read = new int[1];
+        byte[] json = ("{\"_id\":\"doc\",\"meta\":{\"type\":\"t\",\"size\":3},\"_rev\":\"1-a\"," +
+            "\"payload\":[" + "\"xxxxxxxxxx\",".repeat(100000) + "0]} invalid").getBytes("UTF-8");
+        InputStream in = new ByteArrayInputStream(json)
+        {
+            @Override
+            public synchronized int read(byte[] b, int off, int len)
+            {
+                int n = super.read(b, off, len);
+                read[0] += Math.max(n, 0);
+                return n;
+            }
+
+            @Override
+            public void close()
+            {
+                closed[0] = true;
+            }
+        };
+
+        Map m = parser.parse(HashMap.class, new InputStreamSource(in, true));
+        assertThat(m.get("_id"), is((Object) "doc"));
+        assertThat(m.get("_rev"), is((Object) "1-a"));
+        assertThat(((Map) m.get("meta")).get("type"), is((Object) "t"));
+        assertThat(m.containsKey("payload"), is(false));
+        assertThat(closed[0], is(true));
+        assertThat(read[0] < json.length / 10, is(true));
+    }
+
+    @Test
+    public void thatProjectionsWithinArraysReadEverything()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setProjection(Arrays.asList(".id", ".items[].name"));
+        parser.setTerminateEarly(true);
+
+        Map m = parser.parse(HashMap.class, JSON);
+        assertThat(((List) m.get("items")).size(), is(2));
+    }
+}
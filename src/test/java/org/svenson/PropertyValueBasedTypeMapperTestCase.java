@@ -52,6 +52,39 @@ public class PropertyValueBasedTypeMapperTestCase
         assertThat(bar.getValue(), is("ccc"));
     }
 
+    @Test
+    public void thatTypeAfterLargeValuesWorks()
+    {
+        StringBuilder payload = new StringBuilder("[");
+        for (int i = 0; i < 20000; i++)
+        {
+            if (i > 0)
+            {
+                payload.append(',');
+            }
+            payload.append("{\"n\":").append(i).append(",\"s\":[\"x\",true]}");
+        }
+        payload.append("]");
+
+        String json = "{\"rows\":[" +
+            "{\"value\":\"aaa\",\"payload\":" + payload + ",\"type\":\"foo\"}," +
+            "{\"value\":\"bbb\",\"payload\":" + payload + ",\"type\":\"bar\"}]}";
+
+        JSONParser parser = new JSONParser();
+        PropertyValueBasedTypeMapper mapper = new PropertyValueBasedTypeMapper();
+        mapper.setParsePathInfo(".rows[]");
+        mapper.addFieldValueMapping("foo", Foo.class);
+        mapper.addFieldValueMapping("bar", Bar.class);
+        parser.setTypeMapper(mapper);
+
+        List rows = (List) parser.parse(HashMap.class, json).get("rows");
+        Foo foo = (Foo) rows.get(0);
+        assertThat(foo.getValue(), is("aaa"));
+        assertThat(((List) foo.getProperty("payload")).size(), is(20000));
+        Bar bar = (Bar) rows.get(1);
+        assertThat(bar.getValue(), is("bbb"));
+    }
+
     @Test
     public void thatItWorksOnRootLevel() throws IOException
     {
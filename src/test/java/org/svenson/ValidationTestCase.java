@@ -0,0 +1,57 @@
+package org.svenson;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.Test;
+
+public class ValidationTestCase
+{
+    private long errorOffset(String json)
+    {
+        try
+        {
+            new JSONParser().validate(json);
+        }
+        catch (JSONParseException e)
+        {
+            return e.getOffset();
+        }
+        throw new AssertionError("Expected " + json + " to be invalid");
+    }
+
+    @Test
+    public void thatValidJSONWorks() throws Exception
+    {
+        JSONParser parser = new JSONParser();
+        parser.validate("{\"a\":[1,-2.5e3,true,false,null,\"x\\\"\\u00e4\\n\"],\"b\":{},\"c\":[]}");
+        parser.validate(" \"foo\" ");
+        parser.validate("[[[{\"deep\":[]}]]]");
+        parser.validate("{\"äöü\":\"アカエラミノウミウシ\"}".getBytes("UTF-8"));
+    }
+
+    @Test
+    public void thatErrorsReportTheirOffset()
+    {
+        assertThat(errorOffset("{\"a\":1 \"b\":2}"), is(7L));
+        assertThat(errorOffset("[1,2,]"), is(5L));
+        assertThat(errorOffset("{\"a\":[1}"), is(7L));
+        assertThat(errorOffset("{\"a\" 1}"), is(5L));
+        assertThat(errorOffset("{1:2}"), is(1L));
+        assertThat(errorOffset("{\"a\":{\"\":1}}"), is(6L));
+        assertThat(errorOffset("[\"\\x\"]"), is(4L));
+        assertThat(errorOffset("[\"\\u12g4\"]"), is(7L));
+        assertThat(errorOffset("[\"a\tb\"]"), is(4L));
+        assertThat(errorOffset("[-x]"), is(2L));
+        assertThat(errorOffset("[tru]"), is(5L));
+        assertThat(errorOffset("{} []"), is(3L));
+        assertThat(errorOffset("[1,2"), is(4L));
+        assertThat(errorOffset(""), is(0L));
+    }
+
+    @Test
+    public void thatTheOffsetIsUnknownForOtherParseErrors()
+    {
+        assertThat(new JSONParseException("foo").getOffset(), is(-1L));
+    }
+}
@@ -4,6 +4,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -68,10 +69,14 @@ public class JSONTokenizerTestCase
     protected static Logger log = LoggerFactory.getLogger(JSONTokenizerTestCase.class);
 
     private List<Token> tokenize(String json)
+    {
+        return tokenize(new JSONTokenizer(json, true));
+    }
+
+    private List<Token> tokenize(JSONTokenizer tokenizer)
     {
         List<Token> tokens = new ArrayList<Token>();
 
-        JSONTokenizer tokenizer = new JSONTokenizer(json, true);
         Token token;
         while ( (token = tokenizer.next()).type() != TokenType.END)
         {
@@ -109,6 +114,37 @@ public class JSONTokenizerTestCase
 
     }
 
+    @Test
+    public void thatNumberEdgeCasesAreTokenizedLikeBigDecimal()
+    {
+        assertThat(tokenize("9223372036854775807"), is( Arrays.asList( createToken(TokenType.INTEGER, Long.MAX_VALUE))));
+        assertThat(tokenize("-9223372036854775808"), is( Arrays.asList( createToken(TokenType.INTEGER, Long.MIN_VALUE))));
+        assertThat(tokenize("9223372036854775808"), is( Arrays.asList( createToken(TokenType.DECIMAL, new BigDecimal("9223372036854775808")))));
+        assertThat(tokenize("-9223372036854775809"), is( Arrays.asList( createToken(TokenType.DECIMAL, new BigDecimal("-9223372036854775809")))));
+
+        for (String number : new String[] { "1.50e-3", "-0.0", "0.10", "2E+2", "12.5e10", "1e-1000000000", "3.000000000000000000001" })
+        {
+            assertThat(number, tokenize(number), is( Arrays.asList( createToken(TokenType.DECIMAL, new BigDecimal(number)))));
+        }
+    }
+
+    @Test
+    public void thatInvalidNumbersDontWork()
+    {
+        for (String number : new String[] { "1-2", "1e", "--1", "1.2.3", "1e2.5", "-", "1ee2", "-e1" })
+        {
+            try
+            {
+                tokenize(number);
+                Assert.fail(number + " is not a valid number");
+            }
+            catch(JSONParseException e)
+            {
+                // expected
+            }
+        }
+    }
+
     @Test
     public void thatTokenizingStringsWorks()
     {
@@ -224,6 +260,137 @@ public class JSONTokenizerTestCase
         }
     }
 
+    @Test
+    public void thatTheCursorApiWorks()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer("{\"foo\":[1,-2.5,92233720368547758070,\"bar\",null,true]}", false);
+        assertThat(tokenizer.nextType(), is(TokenType.BRACE_OPEN));
+        assertThat(tokenizer.nextType(), is(TokenType.STRING));
+        assertThat(tokenizer.stringValue(), is("foo"));
+        assertThat(tokenizer.expectNextType(TokenType.COLON), is(TokenType.COLON));
+        assertThat(tokenizer.nextType(), is(TokenType.BRACKET_OPEN));
+        assertThat(tokenizer.nextType(), is(TokenType.INTEGER));
+        assertThat(tokenizer.longValue(), is(1L));
+        assertThat(tokenizer.doubleValue(), is(1.0));
+        assertThat(tokenizer.value(), is((Object) 1L));
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        assertThat(tokenizer.nextType(), is(TokenType.DECIMAL));
+        assertThat(tokenizer.doubleValue(), is(-2.5));
+        assertThat(tokenizer.longValue(), is(-2L));
+        assertThat(tokenizer.value(), is((Object) new BigDecimal("-2.5")));
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        assertThat(tokenizer.nextType(), is(TokenType.DECIMAL));
+        assertThat(tokenizer.value(), is((Object) new BigDecimal("92233720368547758070")));
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        assertThat(tokenizer.nextType(), is(TokenType.STRING));
+        assertThat(tokenizer.currentToken(), is(createToken(TokenType.STRING, "bar")));
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        assertThat(tokenizer.nextType(), is(TokenType.NULL));
+        assertThat(tokenizer.isNull(), is(true));
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        assertThat(tokenizer.nextType(), is(TokenType.TRUE));
+        assertThat(tokenizer.value(), is((Object) Boolean.TRUE));
+        assertThat(tokenizer.nextType(), is(TokenType.BRACKET_CLOSE));
+        assertThat(tokenizer.nextType(), is(TokenType.BRACE_CLOSE));
+        assertThat(tokenizer.nextType(), is(TokenType.END));
+    }
+
+    @Test
+    public void thatTheCursorFollowsPushedBackTokens()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer("[\"foo\", 42]", false);
+        tokenizer.nextType();
+        Token token = tokenizer.peekToken();
+        assertThat(token, is(createToken(TokenType.STRING, "foo")));
+        assertThat(tokenizer.nextType(), is(TokenType.STRING));
+        assertThat(tokenizer.stringValue(), is("foo"));
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        assertThat(tokenizer.nextType(), is(TokenType.INTEGER));
+        assertThat(tokenizer.longValue(), is(42L));
+    }
+
+    @Test
+    public void thatMarkAndResetWork() throws Exception
+    {
+        StringBuilder sb = new StringBuilder("{\"a\":[");
+        for (int i = 0; i < 5000; i++)
+        {
+            sb.append(i > 0 ? "," : "").append("{\"b\":\"}]\\\"\",\"c\":[").append(i).append(",null]}");
+        }
+        sb.append("],\"type\":\"foo\",\"d\":-1.5}");
+        String json = sb.toString();
+
+        for (JSONTokenizer tokenizer : new JSONTokenizer[] {
+            new JSONTokenizer(json, false),
+            new JSONTokenizer(new InputStreamSource(new ByteArrayInputStream(json.getBytes("UTF-8")), true), false),
+            new JSONTokenizer(new CharByCharSource(json), false) })
+        {
+            assertThat(tokenizer.nextType(), is(TokenType.BRACE_OPEN));
+            assertThat(tokenizer.isMarkSupported(), is(true));
+            tokenizer.mark();
+
+            assertThat(tokenizer.nextType(), is(TokenType.STRING));
+            assertThat(tokenizer.expectNextType(TokenType.COLON), is(TokenType.COLON));
+            tokenizer.skipValue();
+            assertThat(tokenizer.currentType(), is(TokenType.BRACKET_CLOSE));
+            assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+            assertThat(tokenizer.nextType(), is(TokenType.STRING));
+            assertThat(tokenizer.stringValue(), is("type"));
+
+            tokenizer.reset();
+            assertThat(tokenizer.currentType(), is(TokenType.BRACE_OPEN));
+            assertThat(tokenizer.nextType(), is(TokenType.STRING));
+            assertThat(tokenizer.stringValue(), is("a"));
+            tokenizer.nextType();
+            assertThat(tokenizer.nextType(), is(TokenType.BRACKET_OPEN));
+            tokenizer.skipComplexValue();
+            tokenizer.nextType();
+            tokenizer.nextType();
+            tokenizer.nextType();
+            tokenizer.skipValue();
+            tokenizer.nextType();
+            tokenizer.nextType();
+            tokenizer.nextType();
+            tokenizer.skipValue();
+            assertThat(tokenizer.doubleValue(), is(-1.5));
+            assertThat(tokenizer.nextType(), is(TokenType.BRACE_CLOSE));
+            assertThat(tokenizer.nextType(), is(TokenType.END));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thatMarkIsNotSupportedWhileRecording()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer("[1]", false);
+        tokenizer.startRecording();
+        tokenizer.mark();
+    }
+
+    @Test
+    public void thatSkippingWorksWhileRecording()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer("[{\"a\":[1,{}]},2]", false);
+        tokenizer.nextType();
+        tokenizer.startRecording();
+        Token first = tokenizer.next();
+        tokenizer.skipComplexValue();
+        assertThat(tokenizer.nextType(), is(TokenType.COMMA));
+        tokenizer.pushBack(first);
+        assertThat(tokenizer.nextType(), is(TokenType.BRACE_OPEN));
+        tokenizer.skipComplexValue();
+        tokenizer.nextType();
+        tokenizer.skipValue();
+        assertThat(tokenizer.longValue(), is(2L));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thatTypedAccessorsCheckTheTokenType()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer("\"foo\"", false);
+        tokenizer.nextType();
+        tokenizer.longValue();
+    }
+
     @Test
     public void thatSingleQuotesAreNotAllowedByDefault()
     {
@@ -249,4 +416,132 @@ public class JSONTokenizerTestCase
         assertThat((Boolean)parser.parse("true"), is(true));
         assertThat((Boolean)parser.parse("false"), is(false));
     }
+
+    @Test
+    public void thatTokensSpanningTheCharacterWindowWork() throws Exception
+    {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < 2000; i++)
+        {
+            if (i > 0)
+            {
+                sb.append(" , ");
+            }
+            sb.append("\"value-").append(i).append("\", ").append(i * 1000003L);
+        }
+        sb.append("]");
+        String json = sb.toString();
+
+        List<Token> expected = tokenize(json);
+        assertThat(expected.size(), is(8001));
+
+        assertThat(tokenize(new JSONTokenizer(new InputStreamSource(new ByteArrayInputStream(json.getBytes("UTF-8")), true), true)), is(expected));
+        assertThat(tokenize(new JSONTokenizer(new CharByCharSource(json), true)), is(expected));
+    }
+
+    @Test
+    public void thatStringsLargerThanTheWindowWork() throws Exception
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 5000; i++)
+        {
+            sb.append("äöü-").append(i);
+        }
+        String plain = sb.toString();
+        String escaped = plain + "\\n\\u0041" + plain;
+
+        String json = "[\"" + plain + "\",\"" + escaped + "\"]";
+        List<Token> expected = Arrays.asList(
+            createToken(TokenType.BRACKET_OPEN),
+            createToken(TokenType.STRING, plain),
+            createToken(TokenType.COMMA),
+            createToken(TokenType.STRING, plain + "\nA" + plain),
+            createToken(TokenType.BRACKET_CLOSE) );
+
+        assertThat(tokenize(json), is(expected));
+        assertThat(tokenize(new JSONTokenizer(new InputStreamSource(new ByteArrayInputStream(json.getBytes("UTF-8")), true), true)), is(expected));
+        assertThat(tokenize(new JSONTokenizer(new ByteArrayJSONSource(json.getBytes("UTF-8")), true)), is(expected));
+        assertThat(tokenize(new JSONTokenizer(new CharByCharSource(json), true)), is(expected));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatControlCharactersInStringsDontWork()
+    {
+        tokenize("\"foo\tbar\"");
+    }
+
+    @Test
+    public void thatByteSourcesDecodeCharactersInBlocks() throws Exception
+    {
+        String json = "[\"\u00e4\u00f6\u20ac\uD83D\uDE00\"]";
+        byte[] bytes = json.getBytes("UTF-8");
+        final int[] reads = new int[1];
+        InputStreamSource source = new InputStreamSource(new ByteArrayInputStream(bytes)
+        {
+            @Override
+            public synchronized int read(byte[] b, int off, int len)
+            {
+                reads[0]++;
+                return super.read(b, off, len);
+            }
+        }, true);
+
+        StringBuilder sb = new StringBuilder();
+        int c;
+        while ((c = source.nextChar()) >= 0)
+        {
+            sb.append((char) c);
+            if (sb.length() == 3)
+            {
+                // the index counts the bytes of the delivered characters only
+                assertThat(source.getIndex(), is(4));
+            }
+        }
+        assertThat(sb.toString(), is(json));
+        assertThat(source.getIndex(), is(bytes.length));
+        assertThat(reads[0], is(2));
+    }
+
+    @Test
+    public void thatPlainCharacterSourcesAreAdapted()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer(new CharByCharSource("{\"foo\":\"bar\"}"), false);
+        assertThat(tokenize(tokenizer), is( Arrays.asList(
+            createToken(TokenType.BRACE_OPEN),
+            createToken(TokenType.STRING, "foo"),
+            createToken(TokenType.COLON),
+            createToken(TokenType.STRING, "bar"),
+            createToken(TokenType.BRACE_CLOSE) )));
+        assertThat(tokenizer.getIndex(), is(13L));
+    }
+
+    /**
+     * Character source only implementing the per-character contract.
+     */
+    private static class CharByCharSource
+        implements JSONCharacterSource
+    {
+        private final String json;
+
+        private int index;
+
+        private CharByCharSource(String json)
+        {
+            this.json = json;
+        }
+
+        public int nextChar()
+        {
+            return index < json.length() ? json.charAt(index++) : -1;
+        }
+
+        public int getIndex()
+        {
+            return index;
+        }
+
+        public void destroy()
+        {
+        }
+    }
 }
@@ -0,0 +1,94 @@
+package org.svenson.tokenize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.Test;
+import org.svenson.JSONParser;
+
+public class MappedFileSourceTestCase
+{
+    @Test
+    public void thatParsingMappedFilesWorks() throws Exception
+    {
+        File file = File.createTempFile("svenson", ".json");
+        try
+        {
+            StringBuilder sb = new StringBuilder("[");
+            for (int i = 0; i < 1000; i++)
+            {
+                if (i > 0)
+                {
+                    sb.append(',');
+                }
+                sb.append("{\"id\":").append(i).append(",\"name\":\"äöü-").append(i).append("\"}");
+            }
+            sb.append("]");
+            FileUtils.writeStringToFile(file, sb.toString(), "UTF-8");
+
+            // tiny windows to force many remappings, also within multi-byte sequences
+            MappedFileSource source = new MappedFileSource(file.toPath(), 7);
+            List<Map> list = JSONParser.defaultJSONParser().parse(List.class, source);
+
+            assertThat(list.size(), is(1000));
+            assertThat((String) list.get(999).get("name"), is("äöü-999"));
+            assertThat(source.getOffset(), is(file.length()));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void thatTokenizerIndexIsByteIndex() throws Exception
+    {
+        File file = File.createTempFile("svenson", ".json");
+        try
+        {
+            FileUtils.writeStringToFile(file, "[\"ä\", 1]", "UTF-8");
+
+            JSONTokenizer tokenizer = new JSONTokenizer(new MappedFileSource(file), false);
+            try
+            {
+                tokenizer.next();
+                tokenizer.next();
+                assertThat(tokenizer.getIndex(), is(5L));
+            }
+            finally
+            {
+                tokenizer.destroy();
+            }
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+
+    @Test
+    public void thatDestroyKeepsTheOffset() throws Exception
+    {
+        File file = File.createTempFile("svenson", ".json");
+        try
+        {
+            FileUtils.writeStringToFile(file, "[1,2,3]", "UTF-8");
+
+            MappedFileSource source = new MappedFileSource(file.toPath(), 4);
+            byte[] buffer = new byte[16];
+            assertThat(source.read(buffer, 0, 3), is(3));
+            source.destroy();
+            assertThat(source.getOffset(), is(3L));
+            assertThat(source.getIndex(), is(3));
+        }
+        finally
+        {
+            file.delete();
+        }
+    }
+}
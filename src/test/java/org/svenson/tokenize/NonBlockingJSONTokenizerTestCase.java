@@ -0,0 +1,150 @@
+package org.svenson.tokenize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.svenson.JSONParseException;
+
+public class NonBlockingJSONTokenizerTestCase
+{
+    private final static String JSON = "{\"name\":\"äöü \\\"quoted\\\" \\u0041\",\"values\":[1,-2.5e3,true,false,null," +
+        "92233720368547758070],\"nested\":{\"k\":\"アカエラミノウミウシ\"}}";
+
+    private List<Token> tokenizeAll(String json)
+    {
+        List<Token> tokens = new ArrayList<Token>();
+        JSONTokenizer tokenizer = new JSONTokenizer(json, false);
+        Token token;
+        while ((token = tokenizer.next()).type() != TokenType.END)
+        {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+
+    @Test
+    public void thatEveryChunkSizeWorks() throws Exception
+    {
+        byte[] bytes = JSON.getBytes("UTF-8");
+        List<Token> expected = tokenizeAll(JSON);
+
+        for (int chunkSize = 1; chunkSize <= bytes.length; chunkSize++)
+        {
+            NonBlockingJSONTokenizer tokenizer = new NonBlockingJSONTokenizer(false);
+            List<Token> tokens = new ArrayList<Token>();
+
+            int offset = 0;
+            while (true)
+            {
+                Token token = tokenizer.next();
+                if (token.type() == TokenType.NEED_MORE_INPUT)
+                {
+                    if (offset < bytes.length)
+                    {
+                        int length = Math.min(chunkSize, bytes.length - offset);
+                        tokenizer.feed(bytes, offset, length);
+                        offset += length;
+                    }
+                    else
+                    {
+                        tokenizer.endOfInput();
+                    }
+                }
+                else if (token.type() == TokenType.END)
+                {
+                    break;
+                }
+                else
+                {
+                    tokens.add(token);
+                }
+            }
+
+            assertThat("chunk size " + chunkSize, tokens, is(expected));
+            assertThat(tokenizer.getIndex(), is((long) bytes.length));
+        }
+    }
+
+    @Test
+    public void thatLongTokensFedInSmallChunksWork() throws Exception
+    {
+        StringBuilder value = new StringBuilder();
+        StringBuilder json = new StringBuilder("[\"");
+        for (int i = 0; i < 50000; i++)
+        {
+            value.append("ab\\\"");
+            json.append("ab\\\\\\\"");
+        }
+        StringBuilder digits = new StringBuilder();
+        for (int i = 0; i < 50000; i++)
+        {
+            digits.append('7');
+        }
+        json.append("\",      ").append(digits).append("]");
+        byte[] bytes = json.toString().getBytes("UTF-8");
+
+        // fed one byte at a time, rescanning the tokens on every feed would take ages
+        NonBlockingJSONTokenizer tokenizer = new NonBlockingJSONTokenizer(false);
+        List<Token> tokens = new ArrayList<Token>();
+        int offset = 0;
+        Token token;
+        while ((token = tokenizer.next()).type() != TokenType.END)
+        {
+            if (token.type() != TokenType.NEED_MORE_INPUT)
+            {
+                tokens.add(token);
+            }
+            else if (offset < bytes.length)
+            {
+                tokenizer.feed(bytes, offset++, 1);
+            }
+            else
+            {
+                tokenizer.endOfInput();
+            }
+        }
+
+        assertThat(tokens.size(), is(5));
+        assertThat(tokens.get(1).value(), is((Object) value.toString()));
+        assertThat(tokens.get(3).value(), is((Object) new BigDecimal(digits.toString())));
+        assertThat(tokenizer.getIndex(), is((long) bytes.length));
+    }
+
+    @Test
+    public void thatNumbersWaitForTheEndOfInput() throws Exception
+    {
+        NonBlockingJSONTokenizer tokenizer = new NonBlockingJSONTokenizer(false);
+        tokenizer.feed(ByteBuffer.wrap("12".getBytes("UTF-8")));
+        assertThat(tokenizer.nextType(), is(TokenType.NEED_MORE_INPUT));
+        tokenizer.feed(ByteBuffer.wrap("34".getBytes("UTF-8")));
+        assertThat(tokenizer.nextType(), is(TokenType.NEED_MORE_INPUT));
+        tokenizer.endOfInput();
+        assertThat(tokenizer.nextType(), is(TokenType.INTEGER));
+        assertThat(tokenizer.longValue(), is(1234L));
+        assertThat(tokenizer.nextType(), is(TokenType.END));
+    }
+
+    @Test(expected = JSONParseException.class)
+    public void thatUnclosedStringsFailAtTheEndOfInput() throws Exception
+    {
+        NonBlockingJSONTokenizer tokenizer = new NonBlockingJSONTokenizer(false);
+        tokenizer.feed(ByteBuffer.wrap("\"abc".getBytes("UTF-8")));
+        assertThat(tokenizer.nextType(), is(TokenType.NEED_MORE_INPUT));
+        tokenizer.endOfInput();
+        tokenizer.nextType();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void thatFeedingAfterTheEndFails()
+    {
+        NonBlockingJSONTokenizer tokenizer = new NonBlockingJSONTokenizer(false);
+        tokenizer.endOfInput();
+        tokenizer.feed(new byte[1], 0, 1);
+    }
+}
@@ -0,0 +1,188 @@
+package org.svenson.tokenize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.svenson.JSONParser;
+
+public class StructuralIndexTestCase
+{
+    private final static String JSON = "{\"id\":12,\"skipped\":{\"a\":[1,\"x\\\"]\",{\"b\":null}],\"c\":\"}\"}," +
+        "\"items\":[{\"name\":\"a\\\\\",\"price\":1.5,\"tags\":[\"t\"]},{\"price\":2,\"name\":\"b\\u00e4\"}]," +
+        "\"nested\":{\"keep\":{\"x\":1,\"y\":[2]},\"drop\":true},\"last\":\"z\\u00fcä\"}";
+
+    @Test
+    public void thatIndexMatchesScalarScan()
+    {
+        Random random = new Random(42);
+        char[] alphabet = { '"', '\\', '{', '}', '[', ']', ':', ',', 'a', ' ' };
+        for (int n = 0; n < 500; n++)
+        {
+            byte[] bytes = new byte[random.nextInt(300)];
+            boolean inString = false;
+            // range starts outside of strings, where the index and the scan start, too
+            int[] starts = new int[bytes.length + 1];
+            int startCount = 0;
+            for (int i = 0; i < bytes.length; i++)
+            {
+                if (!inString)
+                {
+                    starts[startCount++] = i;
+                }
+                char c = alphabet[random.nextInt(alphabet.length)];
+                if (c == '\\' && inString && i + 1 < bytes.length)
+                {
+                    // backslashes are only valid within strings
+                    bytes[i++] = '\\';
+                    c = alphabet[random.nextInt(alphabet.length)];
+                }
+                else if (c == '\\')
+                {
+                    c = 'a';
+                }
+                else if (c == '"')
+                {
+                    inString = !inString;
+                }
+                bytes[i] = (byte) c;
+            }
+
+            starts[startCount++] = bytes.length;
+            int offset = starts[random.nextInt(startCount)];
+            StructuralIndex index = StructuralIndex.build(bytes, offset, bytes.length - offset);
+            assertThat(positions(index), is(scan(bytes, offset)));
+        }
+    }
+
+    @Test
+    public void thatBackslashRunsAcrossBlocksWork()
+    {
+        for (int run = 0; run < 5; run++)
+        {
+            for (int start = 56; start < 66; start++)
+            {
+                byte[] bytes = new byte[140];
+                Arrays.fill(bytes, (byte) 'a');
+                bytes[0] = '"';
+                for (int i = 0; i < run; i++)
+                {
+                    bytes[start + i] = '\\';
+                }
+                bytes[start + run] = '"';
+                bytes[start + run + 1] = ',';
+                bytes[139] = '"';
+
+                StructuralIndex index = StructuralIndex.build(bytes, 0, bytes.length);
+                assertThat(positions(index), is(scan(bytes, 0)));
+                assertThat(index.isStringUnclosed(), is(run % 2 == 0));
+            }
+        }
+    }
+
+    @Test
+    public void thatFindWorks()
+    {
+        byte[] bytes = "[1, {\"a\" : 2}]".getBytes(StandardCharsets.UTF_8);
+        StructuralIndex index = StructuralIndex.build(bytes, 0, bytes.length);
+        assertThat(index.size(), is(8));
+        assertThat(index.find(0), is(0));
+        assertThat(index.find(3), is(2));
+        assertThat(index.find(4), is(2));
+        assertThat(index.find(14), is(8));
+    }
+
+    @Test
+    public void thatIndexedParsingMatchesRegularParsing()
+    {
+        byte[] bytes = JSON.getBytes(StandardCharsets.UTF_8);
+
+        JSONParser parser = new JSONParser();
+        JSONParser indexed = new JSONParser();
+        indexed.setStructuralIndexing(true);
+        assertThat(indexed.parse(HashMap.class, bytes), is(parser.parse(HashMap.class, bytes)));
+
+        List<String> projection = Arrays.asList(".id", ".items[].name", ".nested.keep", ".last");
+        parser.setProjection(projection);
+        indexed.setProjection(projection);
+        Map m = indexed.parse(HashMap.class, bytes);
+        assertThat(m, is(parser.parse(HashMap.class, bytes)));
+        assertThat(m.get("last"), is((Object) "züä"));
+    }
+
+    @Test
+    public void thatSkippingWithIndexWorks()
+    {
+        byte[] bytes = ("  " + JSON + " [1,2]").getBytes(StandardCharsets.UTF_8);
+        JSONTokenizer tokenizer = new JSONTokenizer(new ByteArrayJSONSource(bytes, 2, bytes.length - 2), false);
+        tokenizer.setStructuralIndexing(true);
+        assertThat(tokenizer.isStructuralIndexing(), is(true));
+
+        tokenizer.skipValue();
+        assertThat(tokenizer.getIndex(), is((long) JSON.getBytes(StandardCharsets.UTF_8).length));
+        assertThat(tokenizer.next().type(), is(TokenType.BRACKET_OPEN));
+        assertThat(tokenizer.next().value(), is((Object) 1L));
+    }
+
+    @Test
+    public void thatIndexingIsIgnoredForOtherSources()
+    {
+        JSONTokenizer tokenizer = new JSONTokenizer(JSON, false);
+        tokenizer.setStructuralIndexing(true);
+        assertThat(tokenizer.isStructuralIndexing(), is(false));
+
+        tokenizer = new JSONTokenizer(new ByteArrayJSONSource(new byte[0]), true);
+        tokenizer.setStructuralIndexing(true);
+        assertThat(tokenizer.isStructuralIndexing(), is(false));
+    }
+
+    private static List<Integer> positions(StructuralIndex index)
+    {
+        List<Integer> positions = new ArrayList<Integer>();
+        for (int i = 0; i < index.size(); i++)
+        {
+            positions.add(index.get(i));
+        }
+        return positions;
+    }
+
+    private static List<Integer> scan(byte[] bytes, int offset)
+    {
+        List<Integer> positions = new ArrayList<Integer>();
+        boolean inString = false;
+        for (int i = offset; i < bytes.length; i++)
+        {
+            byte b = bytes[i];
+            if (inString)
+            {
+                if (b == '\\')
+                {
+                    i++;
+                }
+                else if (b == '"')
+                {
+                    positions.add(i);
+                    inString = false;
+                }
+            }
+            else if (b == '"')
+            {
+                positions.add(i);
+                inString = true;
+            }
+            else if (b == '{' || b == '}' || b == '[' || b == ']' || b == ':' || b == ',')
+            {
+                positions.add(i);
+            }
+        }
+        return positions;
+    }
+}
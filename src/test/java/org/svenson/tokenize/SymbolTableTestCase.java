@@ -0,0 +1,104 @@
+package org.svenson.tokenize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.svenson.JSONParser;
+
+public class SymbolTableTestCase
+{
+    @Test
+    public void thatKeysAreCanonicalized() throws Exception
+    {
+        String json = "[{\"name\":\"foo\", \"value\" : 1},{\"name\":\"foo\",\"value\":2}]";
+
+        assertKeysCanonicalized(new JSONTokenizer(json, false));
+        assertKeysCanonicalized(new JSONTokenizer(new ByteArrayJSONSource(json.getBytes("UTF-8")), false));
+    }
+
+    private void assertKeysCanonicalized(JSONTokenizer tokenizer)
+    {
+        String first = null;
+        String firstValue = null;
+        TokenType type;
+        while ((type = tokenizer.nextType()) != TokenType.END)
+        {
+            if (type == TokenType.STRING && tokenizer.stringValue().equals("name"))
+            {
+                if (first == null)
+                {
+                    first = tokenizer.stringValue();
+                }
+                else
+                {
+                    assertThat(tokenizer.stringValue(), is(sameInstance(first)));
+                }
+            }
+            if (type == TokenType.STRING && tokenizer.stringValue().equals("foo"))
+            {
+                if (firstValue == null)
+                {
+                    firstValue = tokenizer.stringValue();
+                }
+                else
+                {
+                    // values are not canonicalized by default
+                    assertThat(tokenizer.stringValue() == firstValue, is(false));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void thatShortValuesCanBeCanonicalized()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setCanonicalizeValues(true);
+        List<Map<String,Object>> list = parser.parse(List.class, "[{\"state\":\"open\"},{\"state\":\"open\"}]");
+        assertThat(list.get(0).get("state"), is(sameInstance(list.get(1).get("state"))));
+    }
+
+    @Test
+    public void thatSymbolTablesCanBeShared()
+    {
+        JSONParser parser = new JSONParser();
+        parser.setSymbolTable(new SymbolTable(16));
+
+        Map<String,Object> a = parser.parse(Map.class, "{\"äöü\":1,\"key\":2}");
+        Map<String,Object> b = parser.parse(Map.class, "{\"key\":3}");
+        assertThat(a.keySet().contains("äöü"), is(true));
+
+        String keyA = null;
+        for (String key : a.keySet())
+        {
+            if (key.equals("key"))
+            {
+                keyA = key;
+            }
+        }
+        assertThat(b.keySet().iterator().next(), is(sameInstance(keyA)));
+    }
+
+    @Test
+    public void thatCollisionsAndLongKeysWork()
+    {
+        SymbolTable table = new SymbolTable(1);
+        char[] chars = "abcabd".toCharArray();
+        assertThat(table.lookup(chars, 0, 3), is("abc"));
+        assertThat(table.lookup(chars, 3, 3), is("abd"));
+        assertThat(table.lookup(chars, 0, 3), is("abc"));
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < SymbolTable.MAX_LENGTH + 1; i++)
+        {
+            sb.append('x');
+        }
+        char[] longKey = sb.toString().toCharArray();
+        assertThat(table.lookup(longKey, 0, longKey.length), is(sb.toString()));
+    }
+}
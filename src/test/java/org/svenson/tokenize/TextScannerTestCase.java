@@ -0,0 +1,98 @@
+package org.svenson.tokenize;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class TextScannerTestCase
+{
+    private final static char[] ALPHABET = { 'a', 'b', ' ', '\n', '\t', '\r', '\b', '"', '\'', '\\', '\u0001', '\u001f',
+        '\u007f', 'ä', '€', '￿' };
+
+    private final TextScanner scalar = new TextScanner();
+
+    private final TextScanner scanner = TextScanner.INSTANCE;
+
+    @Test
+    public void thatStringSpecialsAreFound()
+    {
+        Random random = new Random(7);
+        for (int n = 0; n < 2000; n++)
+        {
+            char[] chars = random(random, random.nextInt(200), n % 8);
+            byte[] bytes = new String(chars).getBytes(StandardCharsets.UTF_8);
+            int from = random.nextInt(8);
+            int quote = random.nextBoolean() ? '"' : '\'';
+
+            if (from <= chars.length)
+            {
+                assertThat(scanner.findStringSpecial(chars, from, chars.length, quote),
+                    is(scalar.findStringSpecial(chars, from, chars.length, quote)));
+            }
+            if (from <= bytes.length)
+            {
+                assertThat(scanner.findStringSpecial(bytes, from, bytes.length, quote),
+                    is(scalar.findStringSpecial(bytes, from, bytes.length, quote)));
+                assertThat(scanner.isASCII(bytes, from, bytes.length), is(scalar.isASCII(bytes, from, bytes.length)));
+            }
+        }
+    }
+
+    @Test
+    public void thatWhiteSpaceIsSkipped()
+    {
+        Random random = new Random(11);
+        for (int n = 0; n < 2000; n++)
+        {
+            char[] chars = new char[random.nextInt(200)];
+            for (int i = 0; i < chars.length; i++)
+            {
+                // mostly white-space runs
+                chars[i] = random.nextInt(40) == 0 ? ALPHABET[random.nextInt(ALPHABET.length)] : ALPHABET[2 +
+                    random.nextInt(5)];
+            }
+            byte[] bytes = new String(chars).getBytes(StandardCharsets.UTF_8);
+
+            assertThat(scanner.skipWhiteSpace(chars, 0, chars.length), is(scalar.skipWhiteSpace(chars, 0, chars.length)));
+            assertThat(scanner.skipWhiteSpace(bytes, 0, bytes.length), is(scalar.skipWhiteSpace(bytes, 0, bytes.length)));
+        }
+    }
+
+    @Test
+    public void thatLongStringsAreParsed()
+    {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++)
+        {
+            sb.append("QUJDREVGR0hJSktMTU5PUFFSU1RVVldYWVo=");
+        }
+        String value = sb.toString();
+        String json = "[\"" + value + "\",    \"" + value + "ä\\n\"]";
+
+        for (Object source : new Object[] { json, new ByteArrayJSONSource(json.getBytes(StandardCharsets.UTF_8)) })
+        {
+            JSONTokenizer tokenizer = source instanceof String ? new JSONTokenizer((String) source, false) :
+                new JSONTokenizer((JSONCharacterSource) source, false);
+            assertThat(tokenizer.next().type(), is(TokenType.BRACKET_OPEN));
+            assertThat(tokenizer.next().value(), is((Object) value));
+            assertThat(tokenizer.next().type(), is(TokenType.COMMA));
+            assertThat(tokenizer.next().value(), is((Object) (value + "ä\n")));
+            assertThat(tokenizer.next().type(), is(TokenType.BRACKET_CLOSE));
+        }
+    }
+
+    private static char[] random(Random random, int length, int plainRun)
+    {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+        {
+            // favour plain characters so that specials are found at all positions of a vector
+            chars[i] = random.nextInt(plainRun + 2) > 1 ? 'a' : ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return chars;
+    }
+}